@@ -4,10 +4,14 @@ import groovy.util.NodeList
 
 plugins {
     id("java")
+    // Test kit, published as the test fixtures of the library
+    `java-test-fixtures`
     // Maven publish
     `maven-publish`
     signing
     id("cn.lalaki.central").version("1.2.5")
+    // Benchmarks
+    id("me.champeau.jmh").version("0.7.2")
 }
 
 group = "xyz.alexcrea.jacn"
@@ -25,6 +29,11 @@ dependencies {
 
     implementation("com.networknt:json-schema-validator:1.5.4")
 
+    // Test kit dependencies. the test server is exposed as a WebSocketServer
+    testFixturesApi("org.java-websocket:Java-WebSocket:1.5.7")
+    testFixturesImplementation("com.fasterxml.jackson.core:jackson-databind:2.18.2")
+    testFixturesCompileOnly("org.jetbrains:annotations:24.0.1")
+
     // Test dependencies
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
@@ -34,6 +43,26 @@ tasks.test {
     useJUnitPlatform()
 }
 
+// Benchmarks are located in src/jmh and run with ./gradlew jmh
+// Results are written to build/results/jmh/results.json so runs can be compared
+jmh {
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    failOnError.set(true)
+    // Run only some benchmarks with -PjmhIncludes=InboundPipeline
+    (project.findProperty("jmhIncludes") as String?)?.let { includes.add(it) }
+}
+
+// Multi-client load generator from the test kit, run with ./gradlew loadTest -PloadArgs="clients=8 rate=5000"
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Runs the multi-client action round trip load generator"
+    classpath = sourceSets["testFixtures"].runtimeClasspath
+    mainClass.set("xyz.alexcrea.jacn.testkit.load.LoadGenerator")
+    (project.findProperty("loadArgs") as String?)?.let { args(it.split(" ").filter(String::isNotBlank)) }
+}
+
 val sourcesJar by tasks.registering(Jar::class) {
     archiveClassifier.set("sources")
     from(java.sourceSets.main.get().java)
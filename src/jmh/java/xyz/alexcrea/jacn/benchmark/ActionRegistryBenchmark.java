@@ -0,0 +1,109 @@
+package xyz.alexcrea.jacn.benchmark;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import org.openjdk.jmh.annotations.*;
+import xyz.alexcrea.jacn.action.Action;
+import xyz.alexcrea.jacn.sdk.ActionRegistry;
+
+import java.util.HashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Contention benchmark of the action registry:
+ * many threads register and unregister actions while a single thread, like the websocket thread, resolve them.
+ * <p>
+ * The lock based registry previously used by NeuroSDK is kept here as a baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class ActionRegistryBenchmark {
+
+    @Param({"10", "1000"})
+    public int actionCount;
+
+    private Action[] actions;
+    private RawValue[] payloads;
+    private String[] names;
+
+    private ActionRegistry registry;
+
+    private ReentrantReadWriteLock lock;
+    private HashMap<String, Action> lockedRegistry;
+
+    @Setup
+    public void setup() {
+        this.actions = new Action[actionCount];
+        this.payloads = new RawValue[actionCount];
+        this.names = new String[actionCount];
+        for (int i = 0; i < actionCount; i++) {
+            actions[i] = new Action("action_" + i, "Benchmark action " + i);
+            payloads[i] = actions[i].getRegistrationPayload();
+            names[i] = actions[i].getName();
+        }
+
+        this.registry = new ActionRegistry();
+        this.lock = new ReentrantReadWriteLock();
+        this.lockedRegistry = new HashMap<>();
+
+        // Half of the actions are registered at start
+        for (int i = 0; i < actionCount; i += 2) {
+            registry.register(actions[i], payloads[i]);
+            lockedRegistry.put(names[i], actions[i]);
+        }
+    }
+
+    @Benchmark
+    @Group("lockFree")
+    @GroupThreads(1)
+    public Action lockFreeResolve() {
+        return registry.get(names[ThreadLocalRandom.current().nextInt(actionCount)]);
+    }
+
+    @Benchmark
+    @Group("lockFree")
+    @GroupThreads(7)
+    public boolean lockFreeMutate() {
+        int index = ThreadLocalRandom.current().nextInt(actionCount);
+        Action action = actions[index];
+        if (registry.register(action, payloads[index])) return true;
+
+        return registry.unregister(action);
+    }
+
+    @Benchmark
+    @Group("readWriteLock")
+    @GroupThreads(1)
+    public Action lockedResolve() {
+        String name = names[ThreadLocalRandom.current().nextInt(actionCount)];
+
+        lock.readLock().lock();
+        try {
+            return lockedRegistry.get(name);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Benchmark
+    @Group("readWriteLock")
+    @GroupThreads(7)
+    public boolean lockedMutate() {
+        Action action = actions[ThreadLocalRandom.current().nextInt(actionCount)];
+
+        lock.writeLock().lock();
+        try {
+            if (lockedRegistry.putIfAbsent(action.getName(), action) == null) return true;
+
+            return lockedRegistry.remove(action.getName(), action);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+}
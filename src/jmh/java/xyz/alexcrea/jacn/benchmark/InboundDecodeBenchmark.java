@@ -0,0 +1,86 @@
+package xyz.alexcrea.jacn.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import xyz.alexcrea.jacn.protocol.InboundDecoder;
+import xyz.alexcrea.jacn.protocol.InboundFrame;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the streaming inbound decoder against the previous HashMap based decoding of action frames.
+ * <p>
+ * Run with {@code -prof gc} (enabled by default on the jmh task) to get bytes allocated per frame.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InboundDecodeBenchmark {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Number of properties in the action payload
+     */
+    @Param({"1", "10", "100"})
+    public int payloadFields;
+
+    private String message;
+    private InboundDecoder decoder;
+
+    @Setup
+    public void setup() throws IOException {
+        this.decoder = new InboundDecoder(objectMapper);
+
+        Map<String, Object> payload = new HashMap<>();
+        for (int i = 0; i < payloadFields; i++) {
+            payload.put("field_" + i, "value number " + i);
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("id", "2d8f4c5e-7c1b-4b8e-9d55-0f3b7c1a9e42");
+        data.put("name", "play");
+        data.put("data", objectMapper.writeValueAsString(payload));
+
+        Map<String, Object> frame = new HashMap<>();
+        frame.put("command", "action");
+        frame.put("data", data);
+
+        this.message = objectMapper.writeValueAsString(frame);
+    }
+
+    /**
+     * Previous path: parse the whole message to a map, then parse the payload again to a tree.
+     */
+    @Benchmark
+    public void hashMapDecode(Blackhole bh) throws IOException {
+        HashMap<?, ?> map = objectMapper.readValue(message, HashMap.class);
+        bh.consume(map.get("command").toString());
+
+        Map<?, ?> data = (Map<?, ?>) map.get("data");
+        bh.consume(data.get("id").toString());
+        bh.consume(data.get("name").toString());
+
+        JsonNode node = objectMapper.readTree(data.get("data").toString());
+        bh.consume(node);
+    }
+
+    /**
+     * Current path: one streaming pass over the message, then only the payload become a tree.
+     */
+    @Benchmark
+    public void streamingDecode(Blackhole bh) throws IOException {
+        InboundFrame frame = decoder.decode(message);
+        bh.consume(frame);
+        bh.consume(decoder.readData(frame));
+    }
+
+}
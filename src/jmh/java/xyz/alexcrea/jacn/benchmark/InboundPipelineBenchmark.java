@@ -0,0 +1,183 @@
+package xyz.alexcrea.jacn.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.*;
+import xyz.alexcrea.jacn.action.Action;
+import xyz.alexcrea.jacn.action.ActionRequest;
+import xyz.alexcrea.jacn.action.ActionResult;
+import xyz.alexcrea.jacn.action.OptionMapAction;
+import xyz.alexcrea.jacn.listener.AbstractSDKListener;
+import xyz.alexcrea.jacn.sdk.NeuroSDK;
+import xyz.alexcrea.jacn.sdk.NeuroSDKBuilder;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the whole inbound action pipeline, without a socket:
+ * decoding, action lookup, schema validation, handler dispatch and result encoding.
+ * <p>
+ * The SDK is built with a frame sink, so the result frame is encoded but not sent anywhere.
+ * Run with {@code ./gradlew jmh} (results are written to build/results/jmh/results.json).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InboundPipelineBenchmark {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final String ACTION_NAME = "bench_action";
+    private static final int OPTION_COUNT = 100;
+
+    /**
+     * Number of filler properties added to the action payload
+     */
+    @Param({"0", "10", "100"})
+    public int payloadFields;
+
+    /**
+     * Schema of the requested action: none, an option map action, or a nested object schema
+     */
+    @Param({"none", "option_map", "nested"})
+    public String schema;
+
+    /**
+     * Number of listeners. Only the last one handle the request.
+     * With 0 listeners, the action callback handle it.
+     */
+    @Param({"0", "1", "16"})
+    public int listenerCount;
+
+    private NeuroSDK sdk;
+    private String message;
+
+    // Written by the frame sink. read at teardown so the result encoding is not optimized away.
+    // Only results are counted, so a pipeline sending nothing fails the benchmark
+    private long resultBytes;
+
+    @Setup
+    public void setup() throws IOException {
+        NeuroSDKBuilder builder = new NeuroSDKBuilder("Benchmark")
+                .setFrameSink(payload -> resultBytes += payload.remaining());
+
+        Action action = createAction();
+        if (listenerCount == 0) {
+            action.setOnResult(request -> new ActionResult(request, true, "done"));
+        }
+        for (int i = 0; i < listenerCount; i++) {
+            builder.addListeners(new BenchmarkListener(i == listenerCount - 1));
+        }
+        builder.addActionsOnConnect(action);
+
+        this.sdk = builder.build();
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("id", "2d8f4c5e-7c1b-4b8e-9d55-0f3b7c1a9e42");
+        data.put("name", ACTION_NAME);
+        data.put("data", objectMapper.writeValueAsString(createPayload()));
+
+        Map<String, Object> frame = new HashMap<>();
+        frame.put("command", "action");
+        frame.put("data", data);
+
+        this.message = objectMapper.writeValueAsString(frame);
+
+        // Startup and register frames went through the sink on build. only count result frames
+        this.resultBytes = 0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (resultBytes == 0) throw new IllegalStateException("No result was sent");
+        sdk.close();
+    }
+
+    @NotNull
+    private Action createAction() {
+        switch (schema) {
+            case "option_map": {
+                OptionMapAction<Integer> action = new OptionMapAction<>(ACTION_NAME, "Pick an option");
+                Map<String, Integer> options = new HashMap<>();
+                for (int i = 0; i < OPTION_COUNT; i++) {
+                    options.put("option_" + i, i);
+                }
+                action.setOptions(options);
+                return action;
+            }
+            case "nested": {
+                ObjectNode root = objectMapper.createObjectNode();
+                root.put("type", "object");
+                ObjectNode properties = root.putObject("properties");
+
+                ObjectNode target = properties.putObject("target");
+                target.put("type", "object");
+                ObjectNode targetProperties = target.putObject("properties");
+                targetProperties.putObject("x").put("type", "integer").put("minimum", 0).put("maximum", 100);
+                targetProperties.putObject("y").put("type", "integer").put("minimum", 0).put("maximum", 100);
+                target.putArray("required").add("x").add("y");
+
+                ObjectNode tags = properties.putObject("tags");
+                tags.put("type", "array");
+                ArrayNode tagEnum = tags.putObject("items").put("type", "string").putArray("enum");
+                tagEnum.add("fast").add("quiet").add("safe");
+
+                root.putArray("required").add("target").add("tags");
+                return new Action(ACTION_NAME, "Move to a target").setSchema(root);
+            }
+            default:
+                return new Action(ACTION_NAME, "Do something");
+        }
+    }
+
+    @NotNull
+    private ObjectNode createPayload() {
+        ObjectNode payload = objectMapper.createObjectNode();
+        switch (schema) {
+            case "option_map":
+                payload.put("options", "option_" + (OPTION_COUNT - 1));
+                break;
+            case "nested":
+                payload.putObject("target").put("x", 12).put("y", 34);
+                payload.putArray("tags").add("fast").add("safe");
+                break;
+            default:
+        }
+
+        for (int i = 0; i < payloadFields; i++) {
+            payload.put("field_" + i, "value number " + i);
+        }
+        return payload;
+    }
+
+    @Benchmark
+    public void actionRequest() {
+        sdk.receive(message);
+    }
+
+    private static class BenchmarkListener extends AbstractSDKListener {
+
+        private final boolean handle;
+
+        private BenchmarkListener(boolean handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public @Nullable ActionResult onActionRequest(@NotNull ActionRequest request, @NotNull NeuroSDK sdk) {
+            if (!handle) return null;
+            return new ActionResult(request, true, "done");
+        }
+
+    }
+
+}
@@ -0,0 +1,80 @@
+package xyz.alexcrea.jacn.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import xyz.alexcrea.jacn.action.OptionMapAction;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the option map action validation against the json schema validator on the same schema.
+ * <p>
+ * The selected option is the last one added, so an enumeration scan would go through every option.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OptionMapValidationBenchmark {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Number of options of the action
+     */
+    @Param({"10", "1000", "10000"})
+    public int optionCount;
+
+    private OptionMapAction<Integer> action;
+    private JsonNode validData;
+    private JsonNode invalidData;
+
+    @Setup
+    public void setup() throws IOException {
+        this.action = new OptionMapAction<>("play", "Play an option");
+        for (int i = 0; i < optionCount; i++) {
+            action.setOption("option_" + i, i);
+        }
+
+        this.validData = objectMapper.readTree("{\"options\":\"option_" + (optionCount - 1) + "\"}");
+        this.invalidData = objectMapper.readTree("{\"options\":\"not_an_option\"}");
+    }
+
+    /**
+     * Previous path: the json schema validator scan the enumeration.
+     */
+    @Benchmark
+    public void schemaValidateValid(Blackhole bh) {
+        bh.consume(action.getSchema().validate(validData));
+    }
+
+    /**
+     * Current path: one lookup in the option map.
+     */
+    @Benchmark
+    public void fastPathValidateValid(Blackhole bh) {
+        bh.consume(action.validate(validData));
+    }
+
+    /**
+     * Previous path with an unknown option.
+     */
+    @Benchmark
+    public void schemaValidateInvalid(Blackhole bh) {
+        bh.consume(action.getSchema().validate(invalidData));
+    }
+
+    /**
+     * Current path with an unknown option. The error message enumeration is cached.
+     */
+    @Benchmark
+    public void fastPathValidateInvalid(Blackhole bh) {
+        bh.consume(action.validate(invalidData));
+    }
+
+}
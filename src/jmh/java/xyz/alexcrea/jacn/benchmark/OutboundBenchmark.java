@@ -0,0 +1,216 @@
+package xyz.alexcrea.jacn.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import xyz.alexcrea.jacn.action.Action;
+import xyz.alexcrea.jacn.action.ActionResult;
+import xyz.alexcrea.jacn.sdk.NeuroSDK;
+import xyz.alexcrea.jacn.sdk.NeuroSDKBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure outbound command encoding, without a socket.
+ * <p>
+ * The SDK is built with a frame sink, so frames are encoded but not sent anywhere.
+ * The frame counter report the number of frames and bytes sent:
+ * divide "bytes" by "frames" to get the bytes per frame.
+ * The "hashMap" benchmarks encode the same commands through the previous HashMap envelope, as a baseline.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhIncludes=Outbound}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutboundBenchmark {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final String GAME_NAME = "Benchmark";
+    private static final String REQUEST_ID = "2d8f4c5e-7c1b-4b8e-9d55-0f3b7c1a9e42";
+
+    /**
+     * An SDK sending frames to memory
+     */
+    public static class SinkState {
+
+        protected NeuroSDK sdk;
+
+        // Size of the last frame sent. the benchmarks are single threaded
+        protected int lastFrameBytes;
+
+        protected void build(List<Action> actions) {
+            this.sdk = new NeuroSDKBuilder(GAME_NAME)
+                    .setFrameSink(payload -> lastFrameBytes = payload.remaining())
+                    .addActionsOnConnect(actions)
+                    .build();
+        }
+
+        @TearDown
+        public void tearDown() {
+            sdk.close();
+        }
+
+    }
+
+    /**
+     * State to benchmark context and result messages of different sizes
+     */
+    @State(Scope.Benchmark)
+    public static class MessageState extends SinkState {
+
+        /**
+         * Length of the context or result message
+         */
+        @Param({"16", "1024", "65536"})
+        public int messageLength;
+
+        private String message;
+        private ActionResult result;
+
+        @Setup
+        public void setup() {
+            build(List.of());
+
+            this.message = "a".repeat(messageLength);
+            this.result = new ActionResult(REQUEST_ID, true, message);
+        }
+
+    }
+
+    /**
+     * State to benchmark registration of different action counts
+     */
+    @State(Scope.Benchmark)
+    public static class RegistrationState extends SinkState {
+
+        /**
+         * Number of registered actions
+         */
+        @Param({"10", "100", "1000"})
+        public int actionCount;
+
+        private List<Action> actions;
+
+        @Setup
+        public void setup() {
+            this.actions = new ArrayList<>(actionCount);
+            for (int i = 0; i < actionCount; i++) {
+                actions.add(new Action("action_" + i, "Description of the action number " + i)
+                        .setSchemaRaw("{\"type\":\"object\",\"properties\":{\"amount\":{\"type\":\"integer\",\"minimum\":0}},\"required\":[\"amount\"]}"));
+            }
+
+            build(actions);
+        }
+
+    }
+
+    /**
+     * Count frames and bytes sent in an iteration
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class FrameCounter {
+
+        public long frames;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            frames = 0;
+            bytes = 0;
+        }
+
+        private void count(SinkState state) {
+            frames++;
+            bytes += state.lastFrameBytes;
+        }
+
+    }
+
+    @Benchmark
+    public boolean sendContext(MessageState state, FrameCounter counter) {
+        boolean sent = state.sdk.sendContext(state.message, true);
+        counter.count(state);
+        return sent;
+    }
+
+    @Benchmark
+    public byte[] hashMapContext(MessageState state) throws JsonProcessingException {
+        Map<String, Object> data = new HashMap<>();
+        data.put("message", state.message);
+        data.put("silent", true);
+
+        return encodeEnvelope("context", data);
+    }
+
+    @Benchmark
+    public boolean sendResult(MessageState state, FrameCounter counter) {
+        boolean sent = state.sdk.getWebsocket().sendResult(state.result);
+        counter.count(state);
+        return sent;
+    }
+
+    @Benchmark
+    public byte[] hashMapResult(MessageState state) throws JsonProcessingException {
+        Map<String, Object> data = new HashMap<>();
+        data.put("id", state.result.id());
+        data.put("success", state.result.success());
+        data.put("message", state.result.message());
+
+        return encodeEnvelope("action/result", data);
+    }
+
+    /**
+     * Registration frame as it was built before: every action converted to a map then serialized.
+     */
+    @Benchmark
+    public byte[] hashMapRegistration(RegistrationState state) throws JsonProcessingException {
+        List<Map<String, Object>> actions = new ArrayList<>(state.actions.size());
+        for (Action action : state.actions) {
+            actions.add(action.asMap());
+        }
+
+        return encodeEnvelope("actions/register", Map.of("actions", actions));
+    }
+
+    /**
+     * Registration frame built from the cached payload of each action.
+     */
+    @Benchmark
+    public boolean reRegisterActions(RegistrationState state, FrameCounter counter) {
+        boolean sent = state.sdk.reRegisterActions();
+        counter.count(state);
+        return sent;
+    }
+
+    /**
+     * Cold registration payload: the action payload cache is invalidated before every encoding.
+     */
+    @Benchmark
+    public void registrationPayloadCold(RegistrationState state, Blackhole bh) {
+        for (Action action : state.actions) {
+            // Setting the same schema invalidate the cached payload. it also compile the simple schema validator again
+            action.setSchema(action.getSchema());
+            bh.consume(action.getRegistrationPayload());
+        }
+    }
+
+    private static byte[] encodeEnvelope(String command, Map<String, Object> data) throws JsonProcessingException {
+        Map<String, Object> toSend = new HashMap<>();
+        toSend.put("command", command);
+        toSend.put("game", GAME_NAME);
+        toSend.put("data", data);
+
+        return objectMapper.writeValueAsBytes(toSend);
+    }
+
+}
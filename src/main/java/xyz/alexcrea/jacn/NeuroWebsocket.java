@@ -3,9 +3,10 @@ package xyz.alexcrea.jacn;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.networknt.schema.ValidationMessage;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.java_websocket.client.WebSocketClient;
 import org.java_websocket.framing.CloseFrame;
+import org.java_websocket.framing.TextFrame;
 import org.java_websocket.handshake.ServerHandshake;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
@@ -15,15 +16,39 @@ import org.slf4j.LoggerFactory;
 import xyz.alexcrea.jacn.action.Action;
 import xyz.alexcrea.jacn.action.ActionRequest;
 import xyz.alexcrea.jacn.action.ActionResult;
+import xyz.alexcrea.jacn.listener.ListenerIndex;
 import xyz.alexcrea.jacn.listener.NeuroSDKListener;
+import xyz.alexcrea.jacn.protocol.InboundDecoder;
+import xyz.alexcrea.jacn.protocol.InboundFrame;
+import xyz.alexcrea.jacn.protocol.OutboundEncoder;
+import xyz.alexcrea.jacn.protocol.OutboundWriter;
+import xyz.alexcrea.jacn.sdk.ActionExecutionStrategy;
+import xyz.alexcrea.jacn.sdk.ActionResultCache;
 import xyz.alexcrea.jacn.sdk.NeuroSDK;
 import xyz.alexcrea.jacn.sdk.NeuroSDKBuilder;
 import xyz.alexcrea.jacn.sdk.NeuroSDKState;
+import xyz.alexcrea.jacn.sdk.OutboundLane;
+import xyz.alexcrea.jacn.sdk.OutboundWriterConfig;
+import xyz.alexcrea.jacn.sdk.SharedScheduler;
+import xyz.alexcrea.jacn.sdk.metrics.ActionMetrics;
+import xyz.alexcrea.jacn.sdk.metrics.ActionMetricsRegistry;
 import xyz.alexcrea.jacn.sdk.proposed.ProposedFeature;
 
+import java.io.IOException;
 import java.net.ConnectException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -37,10 +62,16 @@ public class NeuroWebsocket extends WebSocketClient {
     private final static Logger logger = LoggerFactory.getLogger(NeuroWebsocket.class);
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final InboundDecoder decoder = new InboundDecoder(objectMapper);
+
+    private final @NotNull OutboundEncoder encoder;
+    private final @Nullable OutboundWriter writer;
+    private final @Nullable Consumer<ByteBuffer> frameSink;
 
     private final @NotNull NeuroSDK parent;
 
     private final @NotNull List<NeuroSDKListener> listeners;
+    private final @NotNull ListenerIndex listenerIndex;
 
     private final @NotNull Consumer<ServerHandshake> onWebsocketOpen;
     private final @NotNull Consumer<ServerHandshake> onWebsocketOpenInternal;
@@ -51,12 +82,24 @@ public class NeuroWebsocket extends WebSocketClient {
     private final @NotNull Consumer<ConnectException> onConnectErrorInternal;
     private final @NotNull Consumer<Exception> onWebsocketError;
 
+    private final @NotNull Executor actionExecutor;
+    private final boolean shutdownActionExecutor;
+    private final @Nullable Duration defaultActionTimeout;
+    private final @Nullable Function<@NotNull ActionRequest, @NotNull ActionResult> defaultTimeoutResult;
+    private final @Nullable ActionResultCache resultCache;
+    private final @Nullable ActionMetricsRegistry metrics;
+
     public NeuroWebsocket(@NotNull URI serverUri, @NotNull NeuroSDK parent, @NotNull NeuroSDKBuilder builder,
                           @NotNull Consumer<ServerHandshake> onWebsocketOpenInternal,
                           @NotNull Consumer<String> onWebsocketCloseInternal,
                           @NotNull Consumer<ConnectException> onConnectErrorInternal) {
         super(serverUri);
         this.parent = parent;
+        this.encoder = new OutboundEncoder(objectMapper, parent.getGameName());
+        this.frameSink = builder.getFrameSink();
+
+        OutboundWriterConfig writerConfig = builder.getOutboundWriter();
+        this.writer = writerConfig == null ? null : new OutboundWriter(writerConfig, this::writeCommand);
 
         this.listeners = new ArrayList<>(builder.getListeners());
 
@@ -69,12 +112,23 @@ public class NeuroWebsocket extends WebSocketClient {
         this.onConnectErrorInternal = onConnectErrorInternal;
         this.onWebsocketError = builder.getOnError();
 
+        ActionExecutionStrategy actionExecution = builder.getActionExecution();
+        this.actionExecutor = actionExecution.createExecutor();
+        this.shutdownActionExecutor = actionExecution.isShutdownOnClose();
+        this.defaultActionTimeout = builder.getActionTimeout();
+        this.defaultTimeoutResult = builder.getTimeoutResult();
+
+        Duration resultCacheTtl = builder.getResultCacheTtl();
+        this.resultCache = resultCacheTtl == null ? null : new ActionResultCache(builder.getResultCacheSize(), resultCacheTtl);
+        this.metrics = builder.isActionMetrics() ? new ActionMetricsRegistry() : null;
+
         // Set the sdk to listeners
         for (NeuroSDKListener listener : this.listeners) {
             if (!listener.setNeuroSDK(parent)) {
                 throw new RuntimeException("Could not set sdk to a listener");
             }
         }
+        this.listenerIndex = new ListenerIndex(this.listeners);
     }
 
     @Override
@@ -92,7 +146,8 @@ public class NeuroWebsocket extends WebSocketClient {
         }
     }
 
-    private void actionExecuteFailed(@NotNull ActionRequest request, @Nullable String reason, @Nullable Exception e) {
+    private void actionExecuteFailed(@NotNull PendingRequest pending, @Nullable String reason, @Nullable Throwable e) {
+        ActionRequest request = pending.request;
         StringBuilder report = new StringBuilder("Could not execute action request ").append(request.from().getName());
         if (reason != null) {
             report.append(": ").append(reason);
@@ -117,54 +172,92 @@ public class NeuroWebsocket extends WebSocketClient {
             failed = new ActionResult(request.id(), true, "");
         }
 
-        sendResult(failed);
+        sendActionResult(pending, failed);
     }
 
-    private void executeActionRequest(@NotNull ActionRequest request) {
-        // Do Action and get result
-        ActionResult result = null;
+    private void executeActionRequest(@NotNull PendingRequest pendingRequest) {
+        ActionRequest request = pendingRequest.request;
+        pendingRequest.startHandle();
+
+        // Do Action and get the pending result
+        CompletionStage<@Nullable ActionResult> pending = null;
         boolean fromCallback = false;
         try {
+            Function<@NotNull ActionRequest, @Nullable CompletionStage<@Nullable ActionResult>> onResultAsync = request.from().getOnResultAsync();
             Function<@NotNull ActionRequest, @Nullable ActionResult> onResult = request.from().getOnResult();
-            if (onResult != null) {
-                result = request.from().getOnResult().apply(request);
+            if (onResultAsync != null) {
+                pending = onResultAsync.apply(request);
+                fromCallback = true;
+            } else if (onResult != null) {
+                pending = CompletableFuture.completedFuture(onResult.apply(request));
                 fromCallback = true;
             }
 
         } catch (Exception e) {
-            actionExecuteFailed(request, "Exception thrown while executing the action request on the action's callback", e);
+            pendingRequest.endHandle(Outcome.HANDLER_FAILURE);
+            actionExecuteFailed(pendingRequest, "Exception thrown while executing the action request on the action's callback", e);
+            return;
         }
 
         NeuroSDKListener resultingListener = null;
         if (!fromCallback) {
-            // Execute on listeners
-            for (NeuroSDKListener listener : listeners) {
+            // Execute on listeners handling this action
+            for (NeuroSDKListener listener : listenerIndex.candidates(request.from())) {
                 try {
-                    result = listener.onActionRequest(request, this.parent);
-                    if (result != null) {
+                    pending = listener.onActionRequestAsync(request, this.parent);
+                    if (pending != null) {
                         resultingListener = listener;
                         break;
                     }
                 } catch (Exception e) {
-                    actionExecuteFailed(request, "Exception thrown while executing the request on a listener", e);
+                    pendingRequest.endHandle(Outcome.HANDLER_FAILURE);
+                    actionExecuteFailed(pendingRequest, "Exception thrown while executing the request on a listener", e);
+                    return;
                 }
             }
         }
 
+        if (pending == null) {
+            pendingRequest.endHandle(Outcome.NULL_RESULT);
+            actionExecuteFailed(pendingRequest, "All of the action request listeners and the action's callback returned null", null);
+            return;
+        }
+
+        // Send result and do after result when the result is available
+        NeuroSDKListener finalListener = resultingListener;
+        pending.whenComplete((result, throwable) -> completeActionRequest(pendingRequest, result, throwable, finalListener));
+    }
+
+    private void completeActionRequest(@NotNull PendingRequest pending, @Nullable ActionResult result,
+                                       @Nullable Throwable throwable, @Nullable NeuroSDKListener resultingListener) {
+        ActionRequest request = pending.request;
+        if (throwable != null) {
+            if (throwable instanceof CompletionException && throwable.getCause() != null) {
+                throwable = throwable.getCause();
+            }
+
+            pending.endHandle(Outcome.HANDLER_FAILURE);
+            actionExecuteFailed(pending, "Exception thrown while completing the action request", throwable);
+            return;
+        }
+
         if (result == null) {
-            actionExecuteFailed(request, "All of the action request listeners and the action's callback returned null", null);
+            pending.endHandle(Outcome.NULL_RESULT);
+            actionExecuteFailed(pending, "All of the action request listeners and the action's callback returned null", null);
             return;
         }
 
-        // Send result
-        sendResult(result);
+        pending.endHandle(Outcome.RESULT);
+
+        // Send result. Do not do after result if the request already timed out
+        if (!sendActionResult(pending, result)) return;
 
         // Do after result
         try {
-            if (fromCallback) {
-                BiConsumer<ActionRequest, ActionResult> onResult = request.from().getAfterResult();
-                if (onResult != null) {
-                    onResult.accept(request, result);
+            if (resultingListener == null) {
+                BiConsumer<ActionRequest, ActionResult> afterResult = request.from().getAfterResult();
+                if (afterResult != null) {
+                    afterResult.accept(request, result);
                 }
             } else {
                 resultingListener.onAfterResult(request, result, this.parent);
@@ -176,33 +269,88 @@ public class NeuroWebsocket extends WebSocketClient {
 
     }
 
-    @Override
-    public void onMessage(String message) {
+    /**
+     * Send the result of an action request, if no result was already sent for it.
+     *
+     * @param pending the pending action request
+     * @param result  the result to send
+     * @return false if a result was already sent for this request. true otherwise
+     */
+    private boolean sendActionResult(@NotNull PendingRequest pending, @NotNull ActionResult result) {
+        if (!pending.complete()) {
+            logger.warn("Dropped late result of action request {} from action {}: {}",
+                    pending.request.id(), pending.request.from().getName(), result);
+            return false;
+        }
+
+        if (resultCache != null) resultCache.complete(result);
+
+        ActionMetrics actionMetrics = pending.metrics;
+        if (actionMetrics == null) {
+            sendResult(result);
+        } else {
+            long sendStart = System.nanoTime();
+            sendResult(result);
+            actionMetrics.recordSend(System.nanoTime() - sendStart);
+        }
+        return true;
+    }
+
+    private void actionTimedOut(@NotNull PendingRequest pending, @NotNull Duration timeout) {
+        if (pending.isCompleted()) return;
+
+        if (pending.metrics != null) pending.metrics.recordTimeout();
+        String reason = "The action request timed out after " + timeout.toMillis() + "ms";
+
+        ActionRequest request = pending.request;
+        Function<@NotNull ActionRequest, @NotNull ActionResult> timeoutResult = request.from().getTimeoutResult();
+        if (timeoutResult == null) timeoutResult = defaultTimeoutResult;
+        if (timeoutResult == null) {
+            actionExecuteFailed(pending, reason, null);
+            return;
+        }
+
+        ActionResult result;
         try {
-            HashMap<?, ?> map = objectMapper.readValue(message, HashMap.class);
-            if (map == null) {
-                sendInvalidFeedbackUnknownID(message, "Could not parse json: " +
-                        "\nmessage: " + message, null);
-                return;
-            }
+            result = timeoutResult.apply(request);
+        } catch (Exception e) {
+            actionExecuteFailed(pending, reason + ". Exception thrown while creating the timeout result", e);
+            return;
+        }
+        if (result == null) {
+            actionExecuteFailed(pending, reason + ". The timeout result function returned null", null);
+            return;
+        }
 
-            Object commandObj = map.get("command");
-            if (commandObj == null) {
-                sendInvalidFeedbackUnknownID(message, "Could not find command: " +
-                        "\nmessage: " + message, null);
-                return;
-            }
+        logger.warn("Could not execute action request {}: {}", request.from().getName(), reason);
+        sendActionResult(pending, result);
+    }
+
+    @Override
+    public void onMessage(String message) {
+        long receivedNanos = metrics == null ? 0 : System.nanoTime();
 
-            handleCommand(message, commandObj.toString(), map);
-        } catch (JsonProcessingException e) {
+        InboundFrame frame;
+        try {
+            frame = decoder.decode(message);
+        } catch (IOException e) {
             sendInvalidFeedbackUnknownID(message, "Could not parse json. it is malformed. message: " + message, e);
+            return;
         }
+
+        if (frame == null) {
+            sendInvalidFeedbackUnknownID(message, "Could not find command: " +
+                    "\nmessage: " + message, null);
+            return;
+        }
+
+        handleCommand(message, frame, receivedNanos);
     }
 
-    private void handleCommand(@NotNull String message, @NotNull String command, @NotNull HashMap<?, ?> map) {
-        switch (command) {
+    private void handleCommand(@NotNull String message, @NotNull InboundFrame frame, long receivedNanos) {
+        switch (frame.command()) {
             case "action":
-                handleIngoingAction(message, map);
+                handleIngoingAction(message, frame, receivedNanos);
                 break;
             case "actions/reregister_all":
                 handleReRegister();
@@ -214,22 +362,45 @@ public class NeuroWebsocket extends WebSocketClient {
                 //TODO
                 break;
             default:
-                logger.error("Unknown incoming command: {}", command);
+                logger.error("Unknown incoming command: {}", frame.command());
         }
     }
 
-    private void handleIngoingAction(@NotNull String message, @NotNull HashMap<?, ?> map) {
-        Object dataObj = map.get("data");
-        if (!(dataObj instanceof Map<?, ?> data)) {
-            sendInvalidFeedbackUnknownID(message, "Could not find command data" +
-                    "\nmessage: " + message, null);
-            return;
+    private void handleIngoingAction(@NotNull String message, @NotNull InboundFrame frame, long receivedNanos) {
+        ActionRequest request = findRequest(frame, message, receivedNanos);
+        if (request == null) return;
+
+        if (resultCache != null) {
+            ActionResultCache.Entry previous = resultCache.claim(request.id());
+            if (previous != null) {
+                ActionResult previousResult = previous.getResult();
+                if (previousResult == null) {
+                    logger.debug("Ignored duplicate action request {}: it is still executing", request.id());
+                } else {
+                    sendResult(previousResult);
+                }
+                return;
+            }
         }
 
-        ActionRequest request = findRequest(data, message);
-        if (request == null) return;
+        // Keyed by the resolved action. the metrics were created when the request was found
+        ActionMetrics actionMetrics = metrics == null ? null : metrics.forAction(request.from().getName());
+        PendingRequest pending = new PendingRequest(request, actionMetrics);
+
+        // Start the deadline as soon as the request is known. as Neuro is already waiting for it
+        Duration actionTimeout = request.from().getTimeout();
+        Duration timeout = actionTimeout == null ? defaultActionTimeout : actionTimeout;
+        if (timeout != null && !timeout.isNegative() && !timeout.isZero()) {
+            pending.deadline = SharedScheduler.get().schedule(
+                    () -> actionTimedOut(pending, timeout), timeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
 
-        executeActionRequest(request);
+        try {
+            actionExecutor.execute(() -> executeActionRequest(pending));
+        } catch (RejectedExecutionException e) {
+            if (actionMetrics != null) actionMetrics.recordHandlerFailure();
+            actionExecuteFailed(pending, "The action executor rejected the action request", e);
+        }
     }
 
     private void sendInvalidFeedbackUnknownID(@NotNull String message, @NotNull String errorToSend, @Nullable Exception e) {
@@ -255,26 +426,28 @@ public class NeuroWebsocket extends WebSocketClient {
     }
 
     @Nullable
-    private ActionRequest findRequest(@NotNull Map<?, ?> map, @NotNull String message) {
-        Object idObj = map.get("id");
-        if (idObj == null) {
+    private ActionRequest findRequest(@NotNull InboundFrame frame, @NotNull String message,
+                                      long receivedNanos) {
+        String id = frame.id();
+        if (id == null) {
             sendInvalidFeedbackUnknownID(message, "Could not find the id field on the message" +
                     "\nmessage: " + message, null);
             return null;
         }
-        String id = idObj.toString();
 
-        Object nameObj = map.get("name");
-        if (nameObj == null) {
+        String name = frame.name();
+        if (name == null) {
             sendInvalidFeedbackKnownID(id, "Could not find the action name on the message" +
                     "\nmessage: " + message, null);
             return null;
         }
-        String name = nameObj.toString();
 
         // Try to find the action related to the message
         Action action = parent.getAction(name);
         if (action == null) {
+            // Not recorded per name: any name can be received and would grow the metrics
+            if (metrics != null) metrics.recordUnknown();
+
             // This is kind of complicated:
             // We know we can't find the action (it is not registered on our side.)
             // But we can't report as failure as the Neuro side may retry if the action was force
@@ -282,29 +455,41 @@ public class NeuroWebsocket extends WebSocketClient {
             sendResult(new ActionResult(id, true, ""));
             return null;
         }
+        ActionMetrics actionMetrics = metrics == null ? null : metrics.forAction(action.getName());
+        if (actionMetrics != null) actionMetrics.recordReceived();
 
         // Get data if exist
         JsonNode dataNode;
+        long validateNanos = 0;
         if (action.getSchema() != null) {
-            Object data = map.get("data");
-            if (data == null) {
+            if (!frame.hasData()) {
+                if (actionMetrics != null) actionMetrics.recordValidationFailure();
                 sendResult(new ActionResult(id, false, "Please provide a JSON schema"));
                 return null;
             }
 
             try {
-                dataNode = objectMapper.readTree(data.toString());
-            } catch (JsonProcessingException e) {
+                dataNode = decoder.readData(frame);
+            } catch (IOException e) {
+                if (actionMetrics != null) actionMetrics.recordValidationFailure();
                 sendResult(new ActionResult(id, false, "Please provide a well formated JSON schema"));
                 return null;
             }
 
             // validate schema
-            Set<ValidationMessage> validations = action.getSchema().validate(dataNode);
+            long validateStart = actionMetrics == null ? 0 : System.nanoTime();
+            List<String> validations = action.validate(dataNode);
+            if (actionMetrics != null) {
+                validateNanos = System.nanoTime() - validateStart;
+                actionMetrics.recordValidate(validateNanos);
+            }
+
             if (!validations.isEmpty()) {
+                if (actionMetrics != null) actionMetrics.recordValidationFailure();
+
                 StringBuilder stb = new StringBuilder("Provided schema is not valid:");
-                for (ValidationMessage validation : validations) {
-                    stb.append("\n").append(validation.getMessage());
+                for (String validation : validations) {
+                    stb.append("\n").append(validation);
                 }
 
                 sendResult(new ActionResult(id, false, stb.toString()));
@@ -315,7 +500,28 @@ public class NeuroWebsocket extends WebSocketClient {
             dataNode = null;
         }
 
-        return new ActionRequest(action, id, dataNode);
+        // Bind data if requested. without schema, it is bound from the raw payload without building a tree
+        Object value = null;
+        ObjectReader payloadReader = action.getPayloadReader();
+        if (payloadReader != null) {
+            try {
+                if (dataNode != null) {
+                    value = payloadReader.readValue(dataNode);
+                } else if (frame.hasData()) {
+                    value = decoder.readValue(frame, payloadReader);
+                }
+            } catch (IOException e) {
+                // Do not send the location part of the message, it contain the whole payload
+                String reason = e instanceof JsonProcessingException processing ? processing.getOriginalMessage() : e.getMessage();
+                if (actionMetrics != null) actionMetrics.recordValidationFailure();
+                sendResult(new ActionResult(id, false, "Provided data could not be read: " + reason));
+                return null;
+            }
+        }
+
+        // Parse time is everything from the frame being received to the request being ready, except validation
+        if (actionMetrics != null) actionMetrics.recordParse(System.nanoTime() - receivedNanos - validateNanos);
+        return new ActionRequest(action, id, dataNode, value);
     }
 
     @Nullable
@@ -344,13 +550,32 @@ public class NeuroWebsocket extends WebSocketClient {
         return message.substring(startIndex, badEndIndex);
     }
 
-    public boolean sendResult(@NotNull ActionResult result) {
-        Map<String, Object> toSend = new HashMap<>();
-        toSend.put("id", result.id());
-        toSend.put("success", result.success());
-        if (result.message() != null) toSend.put("message", result.message());
+    /**
+     * Get the action result cache of this websocket
+     *
+     * @return the action result cache. null if results are not cached
+     */
+    @Nullable
+    public ActionResultCache getActionResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Get the action metrics of this websocket
+     *
+     * @return the action metrics. null if action metrics are not recorded
+     */
+    @Nullable
+    public ActionMetricsRegistry getActionMetrics() {
+        return metrics;
+    }
 
-        return sendCommand("action/result", toSend);
+    public boolean sendResult(@NotNull ActionResult result) {
+        return sendCommand("action/result", generator -> {
+            generator.writeStringField("id", result.id());
+            generator.writeBooleanField("success", result.success());
+            if (result.message() != null) generator.writeStringField("message", result.message());
+        }, false);
     }
 
     private void handleReRegister() {
@@ -369,6 +594,13 @@ public class NeuroWebsocket extends WebSocketClient {
 
     @Override
     public void onClose(int closeCode, String reason, boolean remote) {
+        // Results and registrations still queued are for this connection. on reconnect, the result lane
+        // has priority over the startup command, so they would be sent before it
+        if (writer != null) {
+            int dropped = writer.discardQueued();
+            if (dropped > 0) logger.warn("Dropped {} outbound commands queued when the connection closed", dropped);
+        }
+
         onWebsocketCloseInternal.accept(reason);
 
         onWebsocketClose.accept(reason);
@@ -399,26 +631,158 @@ public class NeuroWebsocket extends WebSocketClient {
         }
     }
 
-    public boolean sendCommand(@NotNull String command, @Nullable Map<String, Object> data, boolean bypassConnected) {
+    /**
+     * Shut down the action executor if it is owned by the SDK.
+     * Already running action requests are not interrupted.
+     */
+    public void shutdownActionExecutor() {
+        if (shutdownActionExecutor && actionExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    public boolean sendCommand(@NotNull String command, @Nullable OutboundEncoder.DataWriter data, boolean bypassConnected) {
         if (!bypassConnected && !NeuroSDKState.CONNECTED.equals(this.parent.getState())) return false;
 
-        HashMap<String, Object> toSendMap = new HashMap<>();
-        toSendMap.put("command", command);
-        toSendMap.put("game", this.parent.getGameName());
-        if (data != null) {
-            toSendMap.put("data", data);
+        if (writer != null) {
+            return writer.submit(laneOf(command), command, data);
         }
 
         try {
-            send(objectMapper.writeValueAsString(toSendMap));
-        } catch (JsonProcessingException e) {
+            writeCommand(command, data);
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
         return true;
     }
 
+    public boolean sendCommand(@NotNull String command, @Nullable OutboundEncoder.DataWriter data) {
+        return sendCommand(command, data, false);
+    }
+
+    public boolean sendCommand(@NotNull String command, boolean bypassConnected) {
+        return sendCommand(command, (OutboundEncoder.DataWriter) null, bypassConnected);
+    }
+
+    public boolean sendCommand(@NotNull String command, @Nullable Map<String, Object> data, boolean bypassConnected) {
+        if (data == null) return sendCommand(command, bypassConnected);
+
+        return sendCommand(command, generator -> {
+            for (Map.Entry<String, Object> entry : data.entrySet()) {
+                generator.writeObjectField(entry.getKey(), entry.getValue());
+            }
+        }, bypassConnected);
+    }
+
     public boolean sendCommand(@NotNull String command, @Nullable Map<String, Object> data) {
         return sendCommand(command, data, false);
     }
 
+    @NotNull
+    private static OutboundLane laneOf(@NotNull String command) {
+        return switch (command) {
+            case "action/result" -> OutboundLane.RESULT;
+            case "context" -> OutboundLane.CONTEXT;
+            default -> OutboundLane.REGISTRATION;
+        };
+    }
+
+    /**
+     * Get the outbound writer.
+     *
+     * @return the outbound writer. null if commands are sent from the calling thread
+     */
+    @Nullable
+    public OutboundWriter getOutboundWriter() {
+        return writer;
+    }
+
+    /**
+     * Stop the outbound writer if any, after waiting for queued commands to be sent.
+     *
+     * @param timeout the maximum time to wait for queued commands to be sent
+     */
+    public void closeOutboundWriter(@NotNull Duration timeout) {
+        if (writer != null) writer.close(timeout);
+    }
+
+    private void writeCommand(@NotNull String command, @Nullable OutboundEncoder.DataWriter data) throws IOException {
+        encoder.encode(command, data, this::sendTextFrame);
+    }
+
+    private void sendTextFrame(@NotNull ByteBuffer payload) {
+        if (frameSink != null) {
+            frameSink.accept(payload);
+            return;
+        }
+
+        // The payload is copied to the socket buffer while sending. so the encoder buffer can be reused after
+        TextFrame frame = new TextFrame();
+        frame.setPayload(payload);
+        frame.setTransferemasked(true);
+        sendFrame(frame);
+    }
+
+    /**
+     * An action request waiting for its result.
+     * Make sure only one result is sent per request
+     */
+    private static final class PendingRequest {
+
+        private final @NotNull ActionRequest request;
+        private final @NotNull AtomicBoolean completed;
+        private volatile @Nullable ScheduledFuture<?> deadline;
+
+        private final @Nullable ActionMetrics metrics;
+        private volatile long handleStart;
+
+        private PendingRequest(@NotNull ActionRequest request, @Nullable ActionMetrics metrics) {
+            this.request = request;
+            this.completed = new AtomicBoolean(false);
+            this.metrics = metrics;
+        }
+
+        private void startHandle() {
+            if (metrics != null) handleStart = System.nanoTime();
+        }
+
+        /**
+         * Record the handle time and outcome of this request, once its result is available.
+         */
+        private void endHandle(@NotNull Outcome outcome) {
+            if (metrics == null) return;
+
+            metrics.recordHandle(System.nanoTime() - handleStart);
+            switch (outcome) {
+                case HANDLER_FAILURE -> metrics.recordHandlerFailure();
+                case NULL_RESULT -> metrics.recordNullResult();
+                case RESULT -> {
+                }
+            }
+        }
+
+        /**
+         * Mark this request as completed and cancel its deadline.
+         *
+         * @return false if it was already completed
+         */
+        private boolean complete() {
+            if (!completed.compareAndSet(false, true)) return false;
+
+            ScheduledFuture<?> deadline = this.deadline;
+            if (deadline != null) deadline.cancel(false);
+            return true;
+        }
+
+        private boolean isCompleted() {
+            return completed.get();
+        }
+    }
+
+    private enum Outcome {
+        RESULT,
+        HANDLER_FAILURE,
+        NULL_RESULT,
+    }
+
 }
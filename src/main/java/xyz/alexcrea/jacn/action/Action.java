@@ -1,18 +1,31 @@
 package xyz.alexcrea.jacn.action;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.networknt.schema.JsonSchema;
 import com.networknt.schema.JsonSchemaFactory;
 import com.networknt.schema.SpecVersion;
+import com.networknt.schema.ValidationMessage;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import xyz.alexcrea.jacn.action.validation.SchemaCache;
+import xyz.alexcrea.jacn.action.validation.SchemaCompiler;
+import xyz.alexcrea.jacn.action.validation.SchemaValidator;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
@@ -26,11 +39,24 @@ public class Action {
     private final @NotNull String description;
 
     private @Nullable Function<@NotNull ActionRequest, @Nullable ActionResult> onResult;
+    private @Nullable Function<@NotNull ActionRequest, @Nullable CompletionStage<@Nullable ActionResult>> onResultAsync;
     private @Nullable BiConsumer<@NotNull ActionRequest, @NotNull ActionResult> afterResult;
 
     private boolean reportFailure;
+    private @Nullable Duration timeout;
+    private @Nullable Function<@NotNull ActionRequest, @NotNull ActionResult> timeoutResult;
+    private @Nullable String group;
 
     private @Nullable JsonSchema schema;
+    // Compiled simple schema. null if there is no schema or if it is outside the compiled subset
+    private @Nullable SchemaValidator compiledSchema;
+
+    private @Nullable Class<?> payloadType;
+    // Cached reader of the payload type
+    private @Nullable ObjectReader payloadReader;
+
+    // Registration payload cache. invalidated when the schema change
+    private volatile @Nullable RawValue registrationPayload;
 
     /**
      * Represent any action to send to neuro
@@ -63,7 +89,7 @@ public class Action {
                   @Nullable Function<@Nullable ActionRequest, ActionResult> onResult) {
         this.name = name.toLowerCase();
         this.description = description;
-        this.schema = schema;
+        updateSchema(schema);
 
         this.onResult = onResult;
         this.afterResult = null;
@@ -185,10 +211,44 @@ public class Action {
         return this;
     }
 
+    /**
+     * Get the asynchronous function to call on action decided by neuro.
+     * see {@link #setOnResultAsync} for detail
+     *
+     * @return the asynchronous action executed on result
+     */
+    public @Nullable Function<@NotNull ActionRequest, @Nullable CompletionStage<@Nullable ActionResult>> getOnResultAsync() {
+        return onResultAsync;
+    }
+
+    /**
+     * Sets the asynchronous function to call on action decided by neuro.
+     * If set, it is used instead of the {@link #setOnResult onResult} callback.
+     * <p>
+     * The result is sent to Neuro when the returned stage complete,
+     * so the work can be handed to another thread (for example the game tick) without blocking the websocket.
+     * Please note:
+     * <p>
+     * 1) Neuro will still be frozen until the stage complete.
+     * <p>
+     * 2) If this function throw an exception, return null, or if the stage complete exceptionally or with null,
+     * it is handled the same way as the {@link #setOnResult onResult} callback
+     * (see {@link #setReportFailure reportFailure}).
+     *
+     * @param onResultAsync asynchronous action called when send by Neuro and successfully parsed.
+     * @return this
+     */
+    @NotNull
+    public Action setOnResultAsync(@Nullable Function<@NotNull ActionRequest, @Nullable CompletionStage<@Nullable ActionResult>> onResultAsync) {
+        this.onResultAsync = onResultAsync;
+        return this;
+    }
+
     /**
      * Get the consumer called after non-null result is returned by the {@link #setOnResult onResult} callback.
      * <p>
      * Will be called on the same thread as {@link #setOnResult onResult} function.
+     * If {@link #setOnResultAsync onResultAsync} is used, it will be called on the thread completing the stage.
      *
      * @return the action that will be executed after result send to Neuro
      */
@@ -200,6 +260,7 @@ public class Action {
      * Set the consumer called after non-null result is returned by the {@link #setOnResult onResult} callback.
      * <p>
      * Will be called on the same thread as {@link #setOnResult onResult} function.
+     * If {@link #setOnResultAsync onResultAsync} is used, it will be called on the thread completing the stage.
      *
      * @param afterResult the action that will be executed after result send to Neuro
      * @return this
@@ -241,19 +302,135 @@ public class Action {
         return this;
     }
 
+    /**
+     * Get the maximum time an action request of this action can take before a fallback result is sent.
+     * <p>
+     * for more information. see {@link #setTimeout}
+     *
+     * @return the timeout of this action. null if the SDK default is used
+     */
+    public @Nullable Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Set the maximum time an action request of this action can take before a fallback result is sent.
+     * <p>
+     * Neuro is frozen until a result is sent. If no result was produced after this duration,
+     * the fallback result is sent (see {@link #setTimeoutResult}), and the late result is dropped.
+     * <p>
+     * If null, the SDK default is used (see {@link xyz.alexcrea.jacn.sdk.NeuroSDKBuilder#setActionTimeout}).
+     * A zero or negative duration disable the timeout for this action.
+     *
+     * @param timeout the timeout of this action
+     * @return this
+     */
+    @NotNull
+    public Action setTimeout(@Nullable Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Get the function creating the result sent when an action request of this action times out.
+     * <p>
+     * for more information. see {@link #setTimeoutResult}
+     *
+     * @return the timeout result function. null if the SDK default is used
+     */
+    public @Nullable Function<@NotNull ActionRequest, @NotNull ActionResult> getTimeoutResult() {
+        return timeoutResult;
+    }
+
+    /**
+     * Set the function creating the result sent when an action request of this action times out
+     * (see {@link #setTimeout}).
+     * <p>
+     * It is called on the SDK scheduler thread and should return fast.
+     * If null, the SDK default is used (see {@link xyz.alexcrea.jacn.sdk.NeuroSDKBuilder#setTimeoutResult}).
+     * If there is no SDK default either, the request is reported the same way as a failing {@link #setOnResult onResult}
+     * (see {@link #setReportFailure reportFailure}).
+     *
+     * @param timeoutResult the timeout result function
+     * @return this
+     */
+    @NotNull
+    public Action setTimeoutResult(@Nullable Function<@NotNull ActionRequest, @NotNull ActionResult> timeoutResult) {
+        this.timeoutResult = timeoutResult;
+        return this;
+    }
+
+    /**
+     * Get the group of this action.
+     * <p>
+     * for more information. see {@link #setGroup}
+     *
+     * @return the group of this action. null if none
+     */
+    public @Nullable String getGroup() {
+        return group;
+    }
+
+    /**
+     * Set the group of this action.
+     * The group is not sent to Neuro.
+     * <p>
+     * Listeners can handle every action of a group (see {@link xyz.alexcrea.jacn.listener.NeuroSDKListener#getHandledGroups}).
+     *
+     * @param group the group of this action. null if none
+     * @return this
+     */
+    @NotNull
+    public Action setGroup(@Nullable String group) {
+        this.group = group;
+        return this;
+    }
+
 
     private static final JsonSchemaFactory jsonSchemaFactory =
             JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V202012);
 
+    private static final SchemaCache schemaCache = new SchemaCache(jsonSchemaFactory, SchemaCache.DEFAULT_MAX_ENTRIES);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Get the cache of compiled schemas shared by every action.
+     * Can be used to get hit rates or change the cache size.
+     *
+     * @return the shared schema cache
+     */
+    public static @NotNull SchemaCache getSchemaCache() {
+        return schemaCache;
+    }
+
+    private void updateSchema(@Nullable JsonSchema schema) {
+        applySchema(schema == null ? null : SchemaCache.compile(schema));
+    }
+
+    private void applySchema(@Nullable SchemaCache.CompiledSchema compiled) {
+        this.compiledSchema = compiled == null ? null : compiled.validator();
+        this.schema = compiled == null ? null : compiled.schema();
+        this.registrationPayload = null;
+    }
+
     /**
      * Get the simple JSON schema of this action.
      *
      * @return the json schema.
      */
     public @Nullable JsonSchema getSchema() {
+        prepareSchema();
         return schema;
     }
 
+    /**
+     * Called before the schema of this action is used.
+     * Subclasses building their schema lazily should set it here.
+     */
+    protected void prepareSchema() {
+    }
+
     /**
      * Set a simple JSON schema from a document present on the URI location.
      *
@@ -263,11 +440,11 @@ public class Action {
     @NotNull
     public Action setSchemaFromURI(@Nullable URI uri) {
         if (uri == null) {
-            this.schema = null;
+            updateSchema(null);
             return this;
         }
 
-        this.schema = jsonSchemaFactory.getSchema(uri);
+        applySchema(schemaCache.get(uri));
         return this;
     }
 
@@ -280,7 +457,7 @@ public class Action {
     @NotNull
     public Action setSchemaFromURI(@Nullable String uri) {
         if (uri == null) {
-            this.schema = null;
+            updateSchema(null);
             return this;
         }
 
@@ -295,7 +472,7 @@ public class Action {
      */
     public @NotNull Action setSchemaFromResource(@Nullable String resourcePath) {
         if (resourcePath == null) {
-            this.schema = null;
+            updateSchema(null);
             return this;
         }
 
@@ -318,7 +495,7 @@ public class Action {
      */
     @NotNull
     public Action setSchema(@Nullable JsonSchema schema) {
-        this.schema = schema;
+        updateSchema(schema);
         return this;
     }
 
@@ -332,11 +509,11 @@ public class Action {
     @NotNull
     public Action setSchema(@Nullable JsonNode schema) {
         if (schema == null) {
-            this.schema = null;
+            updateSchema(null);
             return this;
         }
 
-        this.schema = jsonSchemaFactory.getSchema(schema);
+        applySchema(schemaCache.get(schema));
         return this;
     }
 
@@ -345,18 +522,95 @@ public class Action {
      *
      * @param rawSchema the simple JSON schema to validate as a plain string
      * @return this
+     * @throws IllegalArgumentException if the raw schema is not valid json
      */
     @NotNull
     public Action setSchemaRaw(@Nullable String rawSchema) {
         if (rawSchema == null) {
-            this.schema = null;
+            updateSchema(null);
             return this;
         }
 
-        this.schema = jsonSchemaFactory.getSchema(rawSchema);
+        applySchema(schemaCache.get(rawSchema));
         return this;
     }
 
+    /**
+     * Get the type action request data are bound to.
+     * <p>
+     * for more information. see {@link #setPayloadType}
+     *
+     * @return the payload type. null if data are not bound
+     */
+    public @Nullable Class<?> getPayloadType() {
+        return payloadType;
+    }
+
+    /**
+     * Set the type action request data are bound to.
+     * <p>
+     * If set, the data of action requests are deserialized to this type (a record or a POJO for example),
+     * and can be read with {@link ActionRequest#value(Class)}.
+     * If this action has no schema, the data is bound directly from the received message
+     * and {@link ActionRequest#data()} is null.
+     * If the data can not be bound, the action request fail.
+     *
+     * @param payloadType the payload type. null to not bind data
+     * @return this
+     */
+    @NotNull
+    public Action setPayloadType(@Nullable Class<?> payloadType) {
+        this.payloadType = payloadType;
+        this.payloadReader = payloadType == null ? null : objectMapper.readerFor(payloadType);
+        return this;
+    }
+
+    /**
+     * Get the reader of the payload type
+     *
+     * @return the payload reader. null if data are not bound
+     */
+    @ApiStatus.Internal
+    public @Nullable ObjectReader getPayloadReader() {
+        return payloadReader;
+    }
+
+    /**
+     * Validate the data of an action request against the schema of this action.
+     * <p>
+     * Simple schemas (see {@link SchemaCompiler}) are validated by validators compiled when the schema is set.
+     * Other schemas are validated by the json schema validator.
+     * <p>
+     * Subclasses with a known schema can override this to validate without the json schema validator,
+     * as long as they produce the same messages.
+     *
+     * @param data the data of the action request
+     * @return the validation error messages. empty if the data is valid
+     */
+    @ApiStatus.Internal
+    @NotNull
+    public List<String> validate(@NotNull JsonNode data) {
+        prepareSchema();
+        SchemaValidator compiledSchema = this.compiledSchema;
+        if (compiledSchema != null) {
+            List<String> errors = new ArrayList<>(0);
+            compiledSchema.validate(data, SchemaCompiler.ROOT_PATH, errors);
+            return errors;
+        }
+
+        JsonSchema schema = this.schema;
+        if (schema == null) return List.of();
+
+        Set<ValidationMessage> validations = schema.validate(data);
+        if (validations.isEmpty()) return List.of();
+
+        List<String> messages = new ArrayList<>(validations.size());
+        for (ValidationMessage validation : validations) {
+            messages.add(validation.getMessage());
+        }
+        return messages;
+    }
+
     /**
      * Return as a map of object that will be sent as json to Neuro
      *
@@ -364,6 +618,7 @@ public class Action {
      */
     @ApiStatus.Internal
     public Map<String, Object> asMap() {
+        prepareSchema();
         Map<String, Object> map = new HashMap<>();
         map.put("name", name);
         map.put("description", description);
@@ -373,4 +628,29 @@ public class Action {
 
         return map;
     }
+
+    /**
+     * Get this action encoded as the json that will be sent to Neuro.
+     * <p>
+     * The encoded json is cached and only computed again after the schema of this action changed.
+     * Registration commands are built by concatenating these payloads.
+     *
+     * @return the encoded json representing this action
+     */
+    @ApiStatus.Internal
+    @NotNull
+    public RawValue getRegistrationPayload() {
+        prepareSchema();
+        RawValue payload = this.registrationPayload;
+        if (payload != null) return payload;
+
+        try {
+            payload = new RawValue(objectMapper.writeValueAsString(asMap()));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not encode action " + name, e);
+        }
+
+        this.registrationPayload = payload;
+        return payload;
+    }
 }
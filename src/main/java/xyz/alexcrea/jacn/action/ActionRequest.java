@@ -7,15 +7,52 @@ import org.jetbrains.annotations.Nullable;
 /**
  * Represent an action requested from Neuro
  *
- * @param from the requested action
- * @param id   the action request id.
- *             It's only use is for the action result.
- * @param data A JSON that valid
- *             null if the action provided no schema.
+ * @param from  the requested action
+ * @param id    the action request id.
+ *              It's only use is for the action result.
+ * @param data  A JSON that valid
+ *              null if the action provided no schema.
+ * @param value the data bound to the payload type of the action (see {@link Action#setPayloadType}).
+ *              null if the action has no payload type or no data was provided.
  */
 public record ActionRequest(
         @NotNull Action from,
         @NotNull String id,
-        @Nullable JsonNode data
+        @Nullable JsonNode data,
+        @Nullable Object value
 ) {
+
+    /**
+     * Represent an action requested from Neuro
+     *
+     * @param from the requested action
+     * @param id   the action request id.
+     *             It's only use is for the action result.
+     * @param data A JSON that valid
+     *             null if the action provided no schema.
+     */
+    public ActionRequest(@NotNull Action from, @NotNull String id, @Nullable JsonNode data) {
+        this(from, id, data, null);
+    }
+
+    /**
+     * Get the data bound to the payload type of the action
+     *
+     * @param type the payload type of the action
+     * @param <T>  the payload type of the action
+     * @return the bound data. null if the action has no payload type or no data was provided.
+     * @throws IllegalArgumentException if the payload type of the action can't be assigned to the provided type
+     * @throws ClassCastException       if the bound data is not of the provided type
+     */
+    @Nullable
+    public <T> T value(@NotNull Class<T> type) {
+        Class<?> payloadType = from.getPayloadType();
+        if (payloadType != null && !type.isAssignableFrom(payloadType)) {
+            throw new IllegalArgumentException("Payload type of action " + from.getName() + " is "
+                    + payloadType.getName() + ", not " + type.getName());
+        }
+
+        return type.cast(value);
+    }
+
 }
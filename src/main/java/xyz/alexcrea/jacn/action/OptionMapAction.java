@@ -1,19 +1,28 @@
 package xyz.alexcrea.jacn.action;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import xyz.alexcrea.jacn.action.validation.SchemaCompiler;
+import xyz.alexcrea.jacn.action.validation.ValidationMessages;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 /**
  * A simple action that map certain options for Neuro to chose 1 of them.
+ * <p>
+ * Options can be changed from any thread: every access to the option map is done while holding this action lock,
+ * including lookups done by action request validation on the websocket thread.
  *
  * @param <T> Type of option's values
  */
@@ -22,20 +31,25 @@ public class OptionMapAction<T> extends Action {
 
     private final static ObjectMapper mapper = new ObjectMapper();
 
-    private final @NotNull Map<String, T> valueMap;
-    private final @NotNull ObjectNode rootNode;
-    private final @NotNull ArrayNode options;
+    private static final String ROOT_PATH = SchemaCompiler.ROOT_PATH;
+    private static final String OPTIONS_PATH = ValidationMessages.property(ROOT_PATH, "options");
+
+    // Insertion ordered so the schema keep the options order. Add and remove are O(1). Guarded by this
+    private final @NotNull LinkedHashMap<String, T> valueMap;
+
+    // If the options changed since the schema was last built
+    private volatile boolean schemaDirty;
+
+    // Enumeration part of the validation error message. invalidated when options change
+    private volatile @Nullable String enumeration;
 
     public OptionMapAction(@NotNull String name, @NotNull String description,
                            @Nullable Map<String, T> options,
                            @Nullable Function<@NotNull ActionRequest, ActionResult> onResult) {
         super(name, description, onResult);
-        this.valueMap = Objects.requireNonNullElseGet(options, HashMap::new);
+        this.valueMap = options == null ? new LinkedHashMap<>() : new LinkedHashMap<>(options);
 
-        this.rootNode = createObjectListSchema(this.valueMap);
-        this.options = (ArrayNode) this.rootNode.get("properties").get("options").get("enum");
-
-        super.setSchema(this.rootNode);
+        optionsChanged();
     }
 
     public OptionMapAction(@NotNull String name, @NotNull String description,
@@ -48,8 +62,8 @@ public class OptionMapAction<T> extends Action {
         this(name, description, null);
     }
 
-    private static <T> @NotNull ObjectNode createObjectListSchema(
-            @NotNull Map<String, T> values) {
+    private static @NotNull ObjectNode createObjectListSchema(
+            @NotNull Collection<String> values) {
 
         ObjectNode jsonRoot = mapper.createObjectNode();
         jsonRoot.put("type", "object");
@@ -59,7 +73,7 @@ public class OptionMapAction<T> extends Action {
         options.put("type", "string");
         ArrayNode optionsEnum = options.putArray("enum");
 
-        for (String key : values.keySet()) {
+        for (String key : values) {
             optionsEnum.add(key);
         }
 
@@ -69,6 +83,21 @@ public class OptionMapAction<T> extends Action {
         return jsonRoot;
     }
 
+    // Only invalidate the schema. it is rebuilt once when it is next used
+    private void optionsChanged() {
+        this.enumeration = null;
+        this.schemaDirty = true;
+    }
+
+    @Override
+    protected synchronized void prepareSchema() {
+        if (!this.schemaDirty) return;
+
+        // Clear the flag first: options changed while building will set it again
+        this.schemaDirty = false;
+        super.setSchema(createObjectListSchema(this.valueMap.keySet()));
+    }
+
     /**
      * Add an option to the option map of this action.
      * This method should only be called before the action is registered
@@ -80,17 +109,32 @@ public class OptionMapAction<T> extends Action {
      * @param value  The mapped value of this option
      * @return if this option was already registered
      */
-    public boolean setOption(@NotNull String option, @NotNull T value) {
+    public synchronized boolean setOption(@NotNull String option, @NotNull T value) {
         T previous = this.valueMap.put(option, value);
         if (previous == null) {
-            this.options.add(option);
-            super.setSchema(this.rootNode);
+            optionsChanged();
             return false;
         }
         return true;
     }
 
-    //TODO test this one
+    /**
+     * Add multiple options to the option map of this action.
+     * Same as calling {@link #setOption} for each option, but the schema is only rebuilt once.
+     *
+     * @param options the options keys and their mapped values
+     * @return the number of options that were not already present
+     */
+    public synchronized int setOptions(@NotNull Map<String, ? extends T> options) {
+        int added = 0;
+        for (Map.Entry<String, ? extends T> option : options.entrySet()) {
+            if (this.valueMap.put(option.getKey(), option.getValue()) == null) added++;
+        }
+
+        if (added > 0) optionsChanged();
+        return added;
+    }
+
     /**
      * Remove this option from the options mapping.
      * This method should only be called before the action is registered
@@ -99,38 +143,101 @@ public class OptionMapAction<T> extends Action {
      * @param option the option key to remove
      * @return if the option was present and removed
      */
-    public boolean removeOption(@NotNull String option) {
+    public synchronized boolean removeOption(@NotNull String option) {
         if (this.valueMap.remove(option) == null)
             return false;
 
-        // Get index of the value
-        AtomicInteger accumulator = new AtomicInteger(0);
-        AtomicInteger index = new AtomicInteger(0);
-
-        this.options.elements().forEachRemaining(
-                nodeToTest -> {
-                    if (option.contentEquals(nodeToTest.asText())) {
-                        index.set(accumulator.get());
-                    }
-                    accumulator.getAndIncrement();
-                }
-        );
-
-        this.options.remove(index.get());
-        super.setSchema(this.rootNode);
+        optionsChanged();
         return true;
     }
 
+    /**
+     * Remove multiple options from the options mapping.
+     * Same as calling {@link #removeOption} for each option, but the schema is only rebuilt once.
+     *
+     * @param options the option keys to remove
+     * @return the number of options that were present and removed
+     */
+    public synchronized int removeOptions(@NotNull Collection<String> options) {
+        int removed = 0;
+        for (String option : options) {
+            if (this.valueMap.remove(option) != null) removed++;
+        }
+
+        if (removed > 0) optionsChanged();
+        return removed;
+    }
+
+    /**
+     * Replace every option of this mapping.
+     * This method should only be called before the action is registered,
+     * or it will need to be re-registered to be updated on Neuro side.
+     *
+     * @param options the new options keys and their mapped values
+     */
+    public synchronized void replaceAll(@NotNull Map<String, ? extends T> options) {
+        this.valueMap.clear();
+        this.valueMap.putAll(options);
+        optionsChanged();
+    }
+
     /**
      * Remove every option of this mapping
      * This method should only be called before the action is registered,
      * or it will need to be re-registered to be updated on Neuro side.
      */
-    public void clearOptions() {
-        if (!this.options.isEmpty()) {
-            this.options.removeAll();
-            super.setSchema(this.rootNode);
+    public synchronized void clearOptions() {
+        if (!this.valueMap.isEmpty()) {
+            this.valueMap.clear();
+            optionsChanged();
+        }
+    }
+
+    /**
+     * Validate the selected option with a single lookup in the option map,
+     * without using the json schema validator.
+     * Error messages are the same as the json schema validator would produce for the option schema.
+     *
+     * @param data the data of the action request
+     * @return the validation error messages. empty if the data is valid
+     */
+    @Override
+    @ApiStatus.Internal
+    public @NotNull List<String> validate(@NotNull JsonNode data) {
+        if (!data.isObject()) {
+            return List.of(ValidationMessages.type(ROOT_PATH, data, "object"));
+        }
+
+        JsonNode option = data.get("options");
+        if (option == null) {
+            return List.of(ValidationMessages.required(ROOT_PATH, "options"));
+        }
+
+        if (!option.isTextual()) {
+            return List.of(
+                    ValidationMessages.type(OPTIONS_PATH, option, "string"),
+                    ValidationMessages.notInEnum(OPTIONS_PATH, getEnumeration()));
+        }
+
+        synchronized (this) {
+            if (this.valueMap.containsKey(option.textValue())) return List.of();
+        }
+        return List.of(ValidationMessages.notInEnum(OPTIONS_PATH, getEnumeration()));
+    }
+
+    @NotNull
+    private synchronized String getEnumeration() {
+        String enumeration = this.enumeration;
+        if (enumeration == null) {
+            List<JsonNode> values = new ArrayList<>(this.valueMap.size());
+            for (String option : this.valueMap.keySet()) {
+                values.add(TextNode.valueOf(option));
+            }
+
+            enumeration = ValidationMessages.enumeration(values);
+            this.enumeration = enumeration;
         }
+        return enumeration;
     }
 
     /**
@@ -140,7 +247,7 @@ public class OptionMapAction<T> extends Action {
      * @return the value associated to it. null if absent
      */
     @Nullable
-    public T get(@NotNull String option) {
+    public synchronized T get(@NotNull String option) {
         return this.valueMap.get(option);
     }
 
@@ -163,7 +270,7 @@ public class OptionMapAction<T> extends Action {
      *
      * @return the number of mapped actions
      */
-    public int size() {
+    public synchronized int size() {
         return this.valueMap.size();
     }
 
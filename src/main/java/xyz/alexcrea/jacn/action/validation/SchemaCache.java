@@ -0,0 +1,227 @@
+package xyz.alexcrea.jacn.action.validation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of compiled json schemas shared by every action.
+ * <p>
+ * Schemas are keyed by their content (or by their location for schemas loaded from a URI),
+ * so actions with identical schemas share a single compiled schema.
+ * When the cache is full, the least recently used schema is evicted.
+ */
+@SuppressWarnings({"unused"})
+public class SchemaCache {
+
+    /**
+     * Default maximum number of cached schemas
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 512;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final @NotNull JsonSchemaFactory factory;
+    private final @NotNull LinkedHashMap<String, CompiledSchema> entries;
+    private int maxEntries;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Create a schema cache
+     *
+     * @param factory    the factory used to compile schemas
+     * @param maxEntries the maximum number of cached schemas
+     */
+    public SchemaCache(@NotNull JsonSchemaFactory factory, int maxEntries) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("Max entries should be positive");
+
+        this.factory = factory;
+        this.maxEntries = maxEntries;
+        // Access ordered, so the first entry is the least recently used
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledSchema> eldest) {
+                if (size() <= SchemaCache.this.maxEntries) return false;
+
+                evictionCount++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get the compiled schema of a json schema.
+     * The schema node is copied before being compiled, so it can be modified after this call.
+     *
+     * @param schema the json schema
+     * @return the compiled schema
+     */
+    @NotNull
+    public CompiledSchema get(@NotNull JsonNode schema) {
+        String key = "json:" + schema;
+        CompiledSchema cached = lookup(key);
+        if (cached != null) return cached;
+
+        return store(key, compile(factory.getSchema(schema.deepCopy())));
+    }
+
+    /**
+     * Get the compiled schema of a raw json schema
+     *
+     * @param rawSchema the json schema as a plain string
+     * @return the compiled schema
+     * @throws IllegalArgumentException if the raw schema is not valid json
+     */
+    @NotNull
+    public CompiledSchema get(@NotNull String rawSchema) {
+        JsonNode schema;
+        try {
+            schema = objectMapper.readTree(rawSchema);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid json schema: " + e.getOriginalMessage(), e);
+        }
+
+        // Keyed by the parsed content. so formatting differences still share the same schema.
+        // Only parsed here: the json schema is built on a cache miss
+        return get(schema);
+    }
+
+    /**
+     * Get the compiled schema of a json schema document present on the URI location
+     *
+     * @param uri the json schema location
+     * @return the compiled schema
+     */
+    @NotNull
+    public CompiledSchema get(@NotNull URI uri) {
+        String key = "uri:" + uri;
+        CompiledSchema cached = lookup(key);
+        if (cached != null) return cached;
+
+        return store(key, compile(factory.getSchema(uri)));
+    }
+
+    /**
+     * Get the compiled validator of an already created json schema.
+     * The json schema itself is not cached.
+     *
+     * @param schema the json schema
+     * @return the compiled schema
+     */
+    @NotNull
+    public static CompiledSchema compile(@NotNull JsonSchema schema) {
+        return new CompiledSchema(schema, SchemaCompiler.compile(schema.getSchemaNode()));
+    }
+
+    @Nullable
+    private synchronized CompiledSchema lookup(@NotNull String key) {
+        CompiledSchema cached = entries.get(key);
+        if (cached != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return cached;
+    }
+
+    @NotNull
+    private synchronized CompiledSchema store(@NotNull String key, @NotNull CompiledSchema compiled) {
+        // Another thread may have compiled the same schema meanwhile
+        CompiledSchema previous = entries.putIfAbsent(key, compiled);
+        return previous == null ? compiled : previous;
+    }
+
+    /**
+     * Set the maximum number of cached schemas.
+     * Schemas above the new maximum are evicted on the next insertion.
+     *
+     * @param maxEntries the maximum number of cached schemas
+     */
+    public synchronized void setMaxEntries(int maxEntries) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("Max entries should be positive");
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get the maximum number of cached schemas
+     *
+     * @return the maximum number of cached schemas
+     */
+    public synchronized int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Remove every cached schema. Actions keep the schemas they already use.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Get the number of cached schemas
+     *
+     * @return the cached schema count
+     */
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * Get the number of schemas found in the cache
+     *
+     * @return the hit count
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Get the number of schemas that needed to be compiled
+     *
+     * @return the miss count
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Get the ratio of schemas found in the cache
+     *
+     * @return the hit rate, between 0 and 1. 0 if the cache was never used
+     */
+    public synchronized double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Get the number of schemas evicted because the cache was full
+     *
+     * @return the eviction count
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * A compiled json schema
+     *
+     * @param schema    the json schema
+     * @param validator the compiled simple schema validator. null if the schema is not a simple schema
+     */
+    public record CompiledSchema(@NotNull JsonSchema schema, @Nullable SchemaValidator validator) {
+    }
+
+}
@@ -0,0 +1,282 @@
+package xyz.alexcrea.jacn.action.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Compile the simple json schema subset allowed by the Neuro API to validator objects.
+ * <p>
+ * Supported keywords are type (as a single type), properties, required, enum,
+ * minimum, maximum, exclusiveMinimum, exclusiveMaximum, minLength, maxLength, items, minItems and maxItems.
+ * Annotation keywords (title, description, ...) are ignored.
+ * A schema using anything else is not compiled, and should be validated by the json schema validator instead.
+ * <p>
+ * Error messages are the same as the json schema validator, in the same keyword order.
+ */
+@ApiStatus.Internal
+public final class SchemaCompiler {
+
+    public static final String ROOT_PATH = "$";
+
+    private static final Set<String> ANNOTATIONS = Set.of(
+            "$schema", "$id", "title", "description", "default", "examples", "$comment");
+
+    private static final Set<String> TYPES = Set.of(
+            "object", "array", "string", "integer", "number", "boolean", "null");
+
+    private static final Pattern SIMPLE_PROPERTY = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private SchemaCompiler() {
+    }
+
+    /**
+     * Compile a json schema
+     *
+     * @param schema the json schema
+     * @return the compiled validator. null if the schema is not part of the supported subset
+     */
+    @Nullable
+    public static SchemaValidator compile(@NotNull JsonNode schema) {
+        if (schema.isBoolean()) {
+            return schema.booleanValue() ? (node, path, errors) -> {} : null;
+        }
+        if (!schema.isObject()) return null;
+
+        List<SchemaValidator> keywords = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = schema.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (ANNOTATIONS.contains(field.getKey())) continue;
+
+            SchemaValidator keyword = compileKeyword(field.getKey(), field.getValue());
+            if (keyword == null) return null;
+            keywords.add(keyword);
+        }
+
+        if (keywords.size() == 1) return keywords.get(0);
+        return new AllOf(keywords.toArray(SchemaValidator[]::new));
+    }
+
+    @Nullable
+    private static SchemaValidator compileKeyword(@NotNull String keyword, @NotNull JsonNode value) {
+        return switch (keyword) {
+            case "type" -> value.isTextual() && TYPES.contains(value.textValue()) ? new Type(value.textValue()) : null;
+            case "enum" -> compileEnum(value);
+            case "required" -> compileRequired(value);
+            case "properties" -> compileProperties(value);
+            case "items" -> {
+                SchemaValidator items = compile(value);
+                yield items == null ? null : new Items(items);
+            }
+            case "minimum", "maximum", "exclusiveMinimum", "exclusiveMaximum" ->
+                    value.isNumber() ? new Range(keyword, value.decimalValue(), value.asText()) : null;
+            case "minLength", "maxLength", "minItems", "maxItems" ->
+                    value.canConvertToExactIntegral() && value.asLong() >= 0 ? new Count(keyword, value.asLong()) : null;
+            default -> null;
+        };
+    }
+
+    @Nullable
+    private static SchemaValidator compileEnum(@NotNull JsonNode value) {
+        if (!value.isArray()) return null;
+
+        List<JsonNode> values = new ArrayList<>(value.size());
+        Set<String> strings = new HashSet<>();
+        boolean onlyStrings = true;
+        for (JsonNode element : value) {
+            values.add(element);
+            if (element.isTextual()) {
+                strings.add(element.textValue());
+            } else {
+                onlyStrings = false;
+            }
+        }
+
+        return new EnumValues(onlyStrings ? strings : null, values, ValidationMessages.enumeration(values));
+    }
+
+    @Nullable
+    private static SchemaValidator compileRequired(@NotNull JsonNode value) {
+        if (!value.isArray()) return null;
+
+        String[] required = new String[value.size()];
+        for (int i = 0; i < required.length; i++) {
+            JsonNode element = value.get(i);
+            if (!element.isTextual()) return null;
+            required[i] = element.textValue();
+        }
+        return new Required(required);
+    }
+
+    @Nullable
+    private static SchemaValidator compileProperties(@NotNull JsonNode value) {
+        if (!value.isObject()) return null;
+
+        List<Property> properties = new ArrayList<>(value.size());
+        Iterator<Map.Entry<String, JsonNode>> fields = value.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            SchemaValidator validator = compile(field.getValue());
+            if (validator == null) return null;
+
+            properties.add(new Property(field.getKey(), propertyPath(field.getKey()), validator));
+        }
+        return new Properties(properties.toArray(Property[]::new));
+    }
+
+    @NotNull
+    private static String propertyPath(@NotNull String property) {
+        if (SIMPLE_PROPERTY.matcher(property).matches()) return "." + property;
+        return "['" + property.replace("'", "\\'") + "']";
+    }
+
+    private static boolean isIntegral(@NotNull JsonNode node) {
+        return node.isIntegralNumber() || (node.isNumber() && node.canConvertToExactIntegral());
+    }
+
+    private record AllOf(@NotNull SchemaValidator[] keywords) implements SchemaValidator {
+        @Override
+        public void validate(@NotNull JsonNode node, @NotNull String path, @NotNull List<String> errors) {
+            for (SchemaValidator keyword : keywords) {
+                keyword.validate(node, path, errors);
+            }
+        }
+    }
+
+    private record Type(@NotNull String type) implements SchemaValidator {
+        @Override
+        public void validate(@NotNull JsonNode node, @NotNull String path, @NotNull List<String> errors) {
+            boolean valid = switch (type) {
+                case "object" -> node.isObject();
+                case "array" -> node.isArray();
+                case "string" -> node.isTextual();
+                case "integer" -> isIntegral(node);
+                case "number" -> node.isNumber();
+                case "boolean" -> node.isBoolean();
+                default -> node.isNull();
+            };
+            if (!valid) errors.add(ValidationMessages.type(path, node, type));
+        }
+    }
+
+    private record EnumValues(@Nullable Set<String> strings, @NotNull List<JsonNode> values,
+                              @NotNull String enumeration) implements SchemaValidator {
+        @Override
+        public void validate(@NotNull JsonNode node, @NotNull String path, @NotNull List<String> errors) {
+            if (!contains(node)) errors.add(ValidationMessages.notInEnum(path, enumeration));
+        }
+
+        private boolean contains(@NotNull JsonNode node) {
+            if (strings != null) return node.isTextual() && strings.contains(node.textValue());
+
+            for (JsonNode value : values) {
+                if (value.equals(node)) return true;
+                if (value.isNumber() && node.isNumber() && value.decimalValue().compareTo(node.decimalValue()) == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private record Required(@NotNull String[] properties) implements SchemaValidator {
+        @Override
+        public void validate(@NotNull JsonNode node, @NotNull String path, @NotNull List<String> errors) {
+            if (!node.isObject()) return;
+
+            for (String property : properties) {
+                if (!node.has(property)) errors.add(ValidationMessages.required(path, property));
+            }
+        }
+    }
+
+    private record Property(@NotNull String name, @NotNull String pathSuffix, @NotNull SchemaValidator validator) {
+    }
+
+    private record Properties(@NotNull Property[] properties) implements SchemaValidator {
+        @Override
+        public void validate(@NotNull JsonNode node, @NotNull String path, @NotNull List<String> errors) {
+            if (!node.isObject()) return;
+
+            for (Property property : properties) {
+                JsonNode value = node.get(property.name());
+                if (value != null) property.validator().validate(value, path + property.pathSuffix(), errors);
+            }
+        }
+    }
+
+    private record Items(@NotNull SchemaValidator items) implements SchemaValidator {
+        @Override
+        public void validate(@NotNull JsonNode node, @NotNull String path, @NotNull List<String> errors) {
+            if (!node.isArray()) return;
+
+            for (int i = 0; i < node.size(); i++) {
+                items.validate(node.get(i), path + "[" + i + "]", errors);
+            }
+        }
+    }
+
+    private record Range(@NotNull String keyword, @NotNull BigDecimal limit, @NotNull String text) implements SchemaValidator {
+        @Override
+        public void validate(@NotNull JsonNode node, @NotNull String path, @NotNull List<String> errors) {
+            if (!node.isNumber()) return;
+
+            int comparison = node.decimalValue().compareTo(limit);
+            switch (keyword) {
+                case "minimum" -> {
+                    if (comparison < 0) errors.add(path + ": must have a minimum value of " + text);
+                }
+                case "maximum" -> {
+                    if (comparison > 0) errors.add(path + ": must have a maximum value of " + text);
+                }
+                case "exclusiveMinimum" -> {
+                    if (comparison <= 0) errors.add(path + ": must have an exclusive minimum value of " + text);
+                }
+                default -> {
+                    if (comparison >= 0) errors.add(path + ": must have an exclusive maximum value of " + text);
+                }
+            }
+        }
+    }
+
+    private record Count(@NotNull String keyword, long limit) implements SchemaValidator {
+        @Override
+        public void validate(@NotNull JsonNode node, @NotNull String path, @NotNull List<String> errors) {
+            switch (keyword) {
+                case "minLength" -> {
+                    if (node.isTextual() && length(node) < limit) {
+                        errors.add(path + ": must be at least " + limit + " characters long");
+                    }
+                }
+                case "maxLength" -> {
+                    if (node.isTextual() && length(node) > limit) {
+                        errors.add(path + ": must be at most " + limit + " characters long");
+                    }
+                }
+                case "minItems" -> {
+                    if (node.isArray() && node.size() < limit) {
+                        errors.add(path + ": expected at least " + limit + " items but found " + node.size());
+                    }
+                }
+                default -> {
+                    if (node.isArray() && node.size() > limit) {
+                        errors.add(path + ": must have at most " + limit + " items but found " + node.size());
+                    }
+                }
+            }
+        }
+
+        private static long length(@NotNull JsonNode node) {
+            // Json schema count code points, not utf-16 chars
+            String text = node.textValue();
+            return text.codePointCount(0, text.length());
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package xyz.alexcrea.jacn.action.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A compiled json schema, or a part of it.
+ * See {@link SchemaCompiler}.
+ */
+@ApiStatus.Internal
+@FunctionalInterface
+public interface SchemaValidator {
+
+    /**
+     * Validate a node
+     *
+     * @param node   the node to validate
+     * @param path   the path of the node, used in error messages
+     * @param errors the list to add error messages to
+     */
+    void validate(@NotNull JsonNode node, @NotNull String path, @NotNull List<String> errors);
+
+}
@@ -0,0 +1,103 @@
+package xyz.alexcrea.jacn.action.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+
+/**
+ * Build validation error messages with the same text as the json schema validator,
+ * so specialized validators are not distinguishable from it on Neuro side.
+ */
+@ApiStatus.Internal
+public final class ValidationMessages {
+
+    private ValidationMessages() {
+    }
+
+    /**
+     * Get the json schema type name of a node
+     *
+     * @param node the node
+     * @return the type name of the node
+     */
+    @NotNull
+    public static String typeName(@NotNull JsonNode node) {
+        return switch (node.getNodeType()) {
+            case OBJECT, POJO -> "object";
+            case ARRAY -> "array";
+            case STRING, BINARY -> "string";
+            case NUMBER -> node.isIntegralNumber() ? "integer" : "number";
+            case BOOLEAN -> "boolean";
+            default -> "null";
+        };
+    }
+
+    /**
+     * Get the error message of a node of the wrong type
+     *
+     * @param path     the path of the node
+     * @param node     the node
+     * @param expected the expected type name
+     * @return the error message
+     */
+    @NotNull
+    public static String type(@NotNull String path, @NotNull JsonNode node, @NotNull String expected) {
+        return path + ": " + typeName(node) + " found, " + expected + " expected";
+    }
+
+    /**
+     * Get the error message of a missing required property
+     *
+     * @param path     the path of the object
+     * @param property the name of the missing property
+     * @return the error message
+     */
+    @NotNull
+    public static String required(@NotNull String path, @NotNull String property) {
+        return path + ": required property '" + property + "' not found";
+    }
+
+    /**
+     * Get the error message of a node not part of an enumeration
+     *
+     * @param path        the path of the node
+     * @param enumeration the enumeration, as formatted by {@link #enumeration}
+     * @return the error message
+     */
+    @NotNull
+    public static String notInEnum(@NotNull String path, @NotNull String enumeration) {
+        return path + ": does not have a value in the enumeration " + enumeration;
+    }
+
+    /**
+     * Format enumeration values the same way the json schema validator does
+     *
+     * @param values the enumeration values
+     * @return the formatted enumeration
+     */
+    @NotNull
+    public static String enumeration(@NotNull Collection<? extends JsonNode> values) {
+        StringBuilder stb = new StringBuilder("[");
+        String separator = "";
+        for (JsonNode value : values) {
+            stb.append(separator).append(value.toString());
+            separator = ", ";
+        }
+        return stb.append(']').toString();
+    }
+
+    /**
+     * Get the path of a property of an object
+     *
+     * @param path     the path of the object
+     * @param property the property name
+     * @return the path of the property
+     */
+    @NotNull
+    public static String property(@NotNull String path, @NotNull String property) {
+        return path + "." + property;
+    }
+
+}
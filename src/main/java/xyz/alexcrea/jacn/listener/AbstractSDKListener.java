@@ -14,6 +14,7 @@ import xyz.alexcrea.jacn.sdk.proposed.ProposedFeature;
 
 import java.net.ConnectException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * An abstract implementation of a Neuro SDK Listener that implement basic sdk storage
@@ -198,6 +199,30 @@ public abstract class AbstractSDKListener implements NeuroSDKListener, NeuroSDKI
         return sdk.unregisterActions(actions);
     }
 
+    @Override
+    public final @NotNull CompletableFuture<Boolean> registerActionsAsync(@NotNull List<Action> actions) {
+        if (sdk == null) throw new IllegalStateException("NeuroSDK not initialized");
+        return sdk.registerActionsAsync(actions);
+    }
+
+    @Override
+    public final @NotNull CompletableFuture<Boolean> unregisterActionsAsync(@NotNull List<Action> actions) {
+        if (sdk == null) throw new IllegalStateException("NeuroSDK not initialized");
+        return sdk.unregisterActionsAsync(actions);
+    }
+
+    @Override
+    public final boolean syncActions(@NotNull List<Action> actions) {
+        if (sdk == null) throw new IllegalStateException("NeuroSDK not initialized");
+        return sdk.syncActions(actions);
+    }
+
+    @Override
+    public final boolean syncActions(@NotNull Action... actions) {
+        if (sdk == null) throw new IllegalStateException("NeuroSDK not initialized");
+        return sdk.syncActions(actions);
+    }
+
     @Override
     public final boolean forceActions(@Nullable String state, @NotNull String query, boolean ephemeral, @NotNull List<Action> actions) {
         if (sdk == null) throw new IllegalStateException("NeuroSDK not initialized");
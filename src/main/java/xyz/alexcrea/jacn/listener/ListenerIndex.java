@@ -0,0 +1,93 @@
+package xyz.alexcrea.jacn.listener;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import xyz.alexcrea.jacn.action.Action;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index listeners by the action names and groups they handle.
+ * <p>
+ * For an action, the candidate listeners are the listeners handling its name,
+ * then the listeners handling its group, then the catch-all listeners.
+ * Each listener keep the order it was added in.
+ */
+@ApiStatus.Internal
+public class ListenerIndex {
+
+    private final @NotNull Map<String, List<NeuroSDKListener>> byName;
+    private final @NotNull Map<String, List<NeuroSDKListener>> byGroup;
+    private final @NotNull List<NeuroSDKListener> catchAll;
+
+    // Resolved candidates. listeners do not change after creation, so it is only computed once per name and group
+    private final @NotNull Map<String, List<NeuroSDKListener>> resolvedByName;
+    private final @NotNull Map<NameAndGroup, List<NeuroSDKListener>> resolvedByGroup;
+
+    /**
+     * Create a listener index
+     *
+     * @param listeners the listeners to index
+     */
+    public ListenerIndex(@NotNull List<NeuroSDKListener> listeners) {
+        this.byName = new HashMap<>();
+        this.byGroup = new HashMap<>();
+        this.catchAll = new ArrayList<>();
+
+        for (NeuroSDKListener listener : listeners) {
+            Set<String> names = listener.getHandledActions();
+            Set<String> groups = listener.getHandledGroups();
+            if (names == null && groups == null) {
+                catchAll.add(listener);
+                continue;
+            }
+
+            if (names != null) {
+                for (String name : names) {
+                    // Action names are always lowercase
+                    byName.computeIfAbsent(name.toLowerCase(), k -> new ArrayList<>()).add(listener);
+                }
+            }
+            if (groups != null) {
+                for (String group : groups) {
+                    byGroup.computeIfAbsent(group, k -> new ArrayList<>()).add(listener);
+                }
+            }
+        }
+
+        this.resolvedByName = new ConcurrentHashMap<>();
+        this.resolvedByGroup = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the listeners an action request of this action should be dispatched to, in order.
+     *
+     * @param action the requested action
+     * @return the candidate listeners
+     */
+    @NotNull
+    public List<NeuroSDKListener> candidates(@NotNull Action action) {
+        String group = action.getGroup();
+        if (group == null || byGroup.isEmpty()) {
+            return resolvedByName.computeIfAbsent(action.getName(), name -> resolve(name, null));
+        }
+
+        return resolvedByGroup.computeIfAbsent(new NameAndGroup(action.getName(), group),
+                key -> resolve(key.name(), key.group()));
+    }
+
+    @NotNull
+    private List<NeuroSDKListener> resolve(@NotNull String name, @Nullable String group) {
+        LinkedHashSet<NeuroSDKListener> candidates = new LinkedHashSet<>(byName.getOrDefault(name, List.of()));
+        if (group != null) candidates.addAll(byGroup.getOrDefault(group, List.of()));
+        candidates.addAll(catchAll);
+
+        return List.copyOf(candidates);
+    }
+
+    private record NameAndGroup(@NotNull String name, @NotNull String group) {
+    }
+
+}
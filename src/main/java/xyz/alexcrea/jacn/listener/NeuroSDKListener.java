@@ -7,6 +7,10 @@ import xyz.alexcrea.jacn.action.ActionRequest;
 import xyz.alexcrea.jacn.action.ActionResult;
 import xyz.alexcrea.jacn.sdk.NeuroSDK;
 
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 /**
  * Represent a listener to even on the Neuro SDK
  */
@@ -55,14 +59,48 @@ public interface NeuroSDKListener {
      */
     void onError(@NotNull Exception exception);
 
+    /**
+     * Get the name of the actions this listener handle.
+     * Called once, when the SDK is created.
+     * <p>
+     * Action requests are only dispatched to this listener if the action name or group is handled.
+     * If both this and {@link #getHandledGroups} return null, this listener handle every action request,
+     * after the listeners handling the action name or group.
+     * <p>
+     * Default implementation return null.
+     *
+     * @return the handled action names. null if not filtered by name
+     */
+    @Nullable
+    default Set<String> getHandledActions() {
+        return null;
+    }
+
+    /**
+     * Get the groups of the actions this listener handle (see {@link xyz.alexcrea.jacn.action.Action#setGroup}).
+     * Called once, when the SDK is created.
+     * <p>
+     * For more information, see {@link #getHandledActions}.
+     * Default implementation return null.
+     *
+     * @return the handled action groups. null if not filtered by group
+     */
+    @Nullable
+    default Set<String> getHandledGroups() {
+        return null;
+    }
+
     /**
      * Called when Neuro request an action.
-     * This function is, probably, only called from the websocket thread.
+     * This function is called from the websocket thread,
+     * or from the executor set by {@link xyz.alexcrea.jacn.sdk.NeuroSDKBuilder#setActionExecution}.
      * <p>
      * This function should return a result ASAP as Neuro will freeze until a result is provided.
      * An action may be triggered anytime. even if not requested by force action.
      * <p>
      * This function return a non-null value, it will stop other listener to process this action request.
+     * Listeners handling the action name are called first, then listeners handling the action group,
+     * then listeners handling every action. See {@link #getHandledActions}.
      * If no listener return a non-null value, then it will be considered as a failed action request.
      * <p>
      * If you need to execute something that take more time after returned the result. see {@link #onAfterResult}
@@ -75,9 +113,36 @@ public interface NeuroSDKListener {
     @Nullable
     ActionResult onActionRequest(@NotNull ActionRequest request, @NotNull NeuroSDK sdk);
 
+    /**
+     * Called when Neuro request an action, returning the result asynchronously.
+     * This function is called from the websocket thread,
+     * or from the executor set by {@link xyz.alexcrea.jacn.sdk.NeuroSDKBuilder#setActionExecution}.
+     * <p>
+     * The result is sent to Neuro when the returned stage complete.
+     * Neuro will freeze until then, so the stage should complete ASAP.
+     * <p>
+     * If this function return a non-null stage, it will stop other listener to process this action request.
+     * If the stage complete with null or exceptionally, it will be considered as a failed action request.
+     * <p>
+     * Default implementation call {@link #onActionRequest} and wrap its result.
+     *
+     * @param request the requested action
+     * @param sdk     the Neuro SDK
+     * @return a stage completing with the resulting action result.
+     * or null if the listener do not handle this Action Request
+     */
+    @Nullable
+    default CompletionStage<@Nullable ActionResult> onActionRequestAsync(@NotNull ActionRequest request, @NotNull NeuroSDK sdk) {
+        ActionResult result = onActionRequest(request, sdk);
+        if (result == null) return null;
+
+        return CompletableFuture.completedFuture(result);
+    }
+
     /**
      * Called after {@link #onActionRequest} of this listener returned a non-null result.
-     * This function is, probably, only called from the websocket thread.
+     * This function is called on the same thread as {@link #onActionRequest},
+     * or on the thread completing the stage of {@link #onActionRequestAsync}.
      *
      * @param request the requested action
      * @param result  the returned result
@@ -0,0 +1,152 @@
+package xyz.alexcrea.jacn.protocol;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Decode incoming Neuro API messages token by token.
+ * <p>
+ * It reads {@code command}, {@code data.id}, {@code data.name} and {@code data.data} in one pass
+ * and skip everything else without building any intermediate map or tree.
+ * Only the action payload is ever materialized as a {@link JsonNode}, and only when asked for.
+ * <p>
+ * This class is thread safe.
+ */
+@ApiStatus.Internal
+public class InboundDecoder {
+
+    private final @NotNull ObjectMapper objectMapper;
+    private final @NotNull JsonFactory jsonFactory;
+
+    /**
+     * Create a decoder using the provided object mapper to parse action payloads
+     *
+     * @param objectMapper the object mapper
+     */
+    public InboundDecoder(@NotNull ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Decode a message
+     *
+     * @param message the raw message received from the websocket
+     * @return the decoded frame. null if the message has no command field
+     * @throws IOException if the message is not a well-formed json object
+     */
+    @Nullable
+    public InboundFrame decode(@NotNull String message) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(message)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a json object");
+            }
+
+            String command = null;
+            String id = null;
+            String name = null;
+            String rawData = null;
+            JsonNode dataNode = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+
+                switch (field) {
+                    case "command":
+                        command = scalarText(parser, token);
+                        break;
+                    case "data":
+                        if (token != JsonToken.START_OBJECT) {
+                            parser.skipChildren();
+                            break;
+                        }
+
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String dataField = parser.currentName();
+                            JsonToken dataToken = parser.nextToken();
+
+                            switch (dataField) {
+                                case "id":
+                                    id = scalarText(parser, dataToken);
+                                    break;
+                                case "name":
+                                    name = scalarText(parser, dataToken);
+                                    break;
+                                case "data":
+                                    if (dataToken == JsonToken.VALUE_STRING) {
+                                        rawData = parser.getText();
+                                    } else if (dataToken == JsonToken.START_OBJECT || dataToken == JsonToken.START_ARRAY) {
+                                        dataNode = objectMapper.readTree(parser);
+                                    }
+                                    break;
+                                default:
+                                    parser.skipChildren();
+                            }
+                        }
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+
+            if (command == null) return null;
+            return new InboundFrame(command, id, name, rawData, dataNode);
+        }
+    }
+
+    /**
+     * Get the action payload of a frame as a json node.
+     *
+     * @param frame the decoded frame
+     * @return the action payload. null if the frame has no payload
+     * @throws IOException if the payload is not well-formed json
+     */
+    @Nullable
+    public JsonNode readData(@NotNull InboundFrame frame) throws IOException {
+        if (frame.dataNode() != null) return frame.dataNode();
+        if (frame.rawData() == null) return null;
+
+        return objectMapper.readTree(frame.rawData());
+    }
+
+    /**
+     * Bind the action payload of a frame directly to an object, without building an intermediate tree
+     * when the payload was sent as a string.
+     *
+     * @param frame  the decoded frame
+     * @param reader the reader of the expected payload type
+     * @param <T>    the type of the payload
+     * @return the bound action payload. null if the frame has no payload
+     * @throws IOException if the payload is not well-formed json or could not be bound
+     */
+    @Nullable
+    public <T> T readValue(@NotNull InboundFrame frame, @NotNull ObjectReader reader) throws IOException {
+        if (frame.dataNode() != null) return reader.readValue(frame.dataNode());
+        if (frame.rawData() == null) return null;
+
+        return reader.readValue(frame.rawData());
+    }
+
+    @Nullable
+    private static String scalarText(@NotNull JsonParser parser, @Nullable JsonToken token) throws IOException {
+        if (token == null || token == JsonToken.VALUE_NULL) return null;
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+
+        return parser.getText();
+    }
+
+}
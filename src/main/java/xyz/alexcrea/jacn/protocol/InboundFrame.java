@@ -0,0 +1,38 @@
+package xyz.alexcrea.jacn.protocol;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A command received from the Neuro API, decoded in a single pass by {@link InboundDecoder}.
+ * <p>
+ * Only the fields the SDK care about are kept. The action payload is kept as it was sent
+ * (a JSON string most of the time) and is only parsed when needed.
+ *
+ * @param command  the command name
+ * @param id       the action request id. null if absent
+ * @param name     the requested action name. null if absent
+ * @param rawData  the action payload as a raw JSON string. null if absent or not sent as a string
+ * @param dataNode the action payload if it was sent as a JSON object or array instead of a string. null otherwise
+ */
+@ApiStatus.Internal
+public record InboundFrame(
+        @NotNull String command,
+        @Nullable String id,
+        @Nullable String name,
+        @Nullable String rawData,
+        @Nullable JsonNode dataNode
+) {
+
+    /**
+     * Get if this frame contain an action payload
+     *
+     * @return if an action payload is present
+     */
+    public boolean hasData() {
+        return rawData != null || dataNode != null;
+    }
+
+}
@@ -0,0 +1,129 @@
+package xyz.alexcrea.jacn.protocol;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Encode outgoing Neuro API commands.
+ * <p>
+ * The {@code command}, {@code game} and {@code data} fields are written by a {@link JsonGenerator}
+ * directly into a reusable byte buffer. No intermediate map or string is created.
+ * The game name is encoded once, when the encoder is created.
+ * <p>
+ * This class is thread safe: encoding and consuming the encoded command is done under a lock.
+ */
+@ApiStatus.Internal
+public class OutboundEncoder {
+
+    // Do not keep a big buffer around after a big command was sent (registration of many actions for example)
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final SerializedString COMMAND_FIELD = new SerializedString("command");
+    private static final SerializedString GAME_FIELD = new SerializedString("game");
+    private static final SerializedString DATA_FIELD = new SerializedString("data");
+
+    private final @NotNull JsonFactory jsonFactory;
+    private final @NotNull SerializedString gameName;
+
+    private @NotNull ReusableOutputStream buffer;
+
+    /**
+     * Create an encoder for a game
+     *
+     * @param objectMapper the object mapper used to write data objects
+     * @param gameName     the game name
+     */
+    public OutboundEncoder(@NotNull ObjectMapper objectMapper, @NotNull String gameName) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.gameName = new SerializedString(gameName);
+
+        this.buffer = new ReusableOutputStream();
+
+        // Encode the game name once
+        this.gameName.asQuotedUTF8();
+    }
+
+    /**
+     * Encode a command and give it to the consumer.
+     * <p>
+     * The provided buffer is only valid during the consumer call as it will be reused for the next command.
+     *
+     * @param command  the command name
+     * @param data     the data writer. null if this command has no data
+     * @param consumer the consumer of the encoded command
+     * @throws IOException if the data could not be written
+     */
+    public synchronized void encode(@NotNull String command, @Nullable DataWriter data,
+                                    @NotNull Consumer<@NotNull ByteBuffer> consumer) throws IOException {
+        buffer.reset();
+
+        try (JsonGenerator generator = jsonFactory.createGenerator(buffer, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeFieldName(COMMAND_FIELD);
+            generator.writeString(command);
+            generator.writeFieldName(GAME_FIELD);
+            generator.writeString(gameName);
+
+            if (data != null) {
+                generator.writeFieldName(DATA_FIELD);
+                generator.writeStartObject();
+                data.write(generator);
+                generator.writeEndObject();
+            }
+
+            generator.writeEndObject();
+        }
+
+        try {
+            consumer.accept(buffer.asByteBuffer());
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+                buffer = new ReusableOutputStream();
+            }
+        }
+    }
+
+    /**
+     * Write the fields of a command data object
+     */
+    @FunctionalInterface
+    public interface DataWriter {
+
+        /**
+         * Write the fields of the data object.
+         * The start and end of the object are written by the encoder.
+         *
+         * @param generator the generator to write to
+         * @throws IOException if the fields could not be written
+         */
+        void write(@NotNull JsonGenerator generator) throws IOException;
+
+    }
+
+    private static class ReusableOutputStream extends ByteArrayOutputStream {
+
+        private ReusableOutputStream() {
+            super(1024);
+        }
+
+        private ByteBuffer asByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+
+        private int capacity() {
+            return buf.length;
+        }
+    }
+
+}
@@ -0,0 +1,286 @@
+package xyz.alexcrea.jacn.protocol;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.alexcrea.jacn.sdk.OutboundLane;
+import xyz.alexcrea.jacn.sdk.OutboundOverflowPolicy;
+import xyz.alexcrea.jacn.sdk.OutboundWriterConfig;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Send every outgoing command from a single writer thread.
+ * <p>
+ * Commands are queued in bounded priority lanes (see {@link OutboundLane}).
+ * The writer always send the oldest command of the highest priority non-empty lane,
+ * so an action result never wait behind a burst of context messages.
+ */
+@ApiStatus.Internal
+public class OutboundWriter {
+
+    private final static Logger logger = LoggerFactory.getLogger(OutboundWriter.class);
+
+    private static final OutboundLane[] LANES = OutboundLane.values();
+
+    private final @NotNull CommandSender sender;
+
+    private final ArrayDeque<PendingCommand>[] queues;
+    private final int[] capacities;
+    private final OutboundOverflowPolicy[] policies;
+
+    private final AtomicLongArray sentCounts;
+    private final AtomicLongArray droppedCounts;
+
+    private final ReentrantLock lock;
+    private final Condition notEmpty;
+    private final Condition notFull;
+    private final Condition drained;
+
+    private final @NotNull Thread writerThread;
+    private volatile boolean running;
+    private boolean writing;
+
+    /**
+     * Create and start an outbound writer
+     *
+     * @param config the lanes configuration
+     * @param sender the function encoding and sending a command on the socket
+     */
+    @SuppressWarnings("unchecked")
+    public OutboundWriter(@NotNull OutboundWriterConfig config, @NotNull CommandSender sender) {
+        this.sender = sender;
+
+        this.queues = new ArrayDeque[LANES.length];
+        this.capacities = new int[LANES.length];
+        this.policies = new OutboundOverflowPolicy[LANES.length];
+        for (OutboundLane lane : LANES) {
+            int capacity = config.getCapacity(lane);
+            queues[lane.ordinal()] = new ArrayDeque<>(Math.min(capacity, 64));
+            capacities[lane.ordinal()] = capacity;
+            policies[lane.ordinal()] = config.getOverflowPolicy(lane);
+        }
+
+        this.sentCounts = new AtomicLongArray(LANES.length);
+        this.droppedCounts = new AtomicLongArray(LANES.length);
+
+        this.lock = new ReentrantLock();
+        this.notEmpty = lock.newCondition();
+        this.notFull = lock.newCondition();
+        this.drained = lock.newCondition();
+
+        this.running = true;
+        this.writerThread = new Thread(this::writeLoop, "jacn-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queue a command to be sent
+     *
+     * @param lane    the lane of the command
+     * @param command the command name
+     * @param data    the data writer. null if the command has no data
+     * @return false if the command was dropped or the writer is stopped. true otherwise
+     */
+    public boolean submit(@NotNull OutboundLane lane, @NotNull String command, @Nullable OutboundEncoder.DataWriter data) {
+        int index = lane.ordinal();
+        ArrayDeque<PendingCommand> queue = queues[index];
+
+        lock.lock();
+        try {
+            if (!running) return false;
+
+            if (queue.size() >= capacities[index]) {
+                switch (policies[index]) {
+                    case BLOCK:
+                        while (running && queue.size() >= capacities[index]) {
+                            notFull.await();
+                        }
+                        if (!running) return false;
+                        break;
+                    case DROP_NEWEST:
+                        droppedCounts.incrementAndGet(index);
+                        return false;
+                    case DROP_OLDEST:
+                        queue.pollFirst();
+                        droppedCounts.incrementAndGet(index);
+                        break;
+                }
+            }
+
+            queue.addLast(new PendingCommand(command, data));
+            notEmpty.signal();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            PendingCommand next;
+            lock.lock();
+            try {
+                next = pollNext();
+                while (next == null) {
+                    writing = false;
+                    drained.signalAll();
+                    if (!running) return;
+
+                    notEmpty.await();
+                    next = pollNext();
+                }
+                writing = true;
+                notFull.signalAll();
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                sender.send(next.command(), next.data());
+            } catch (Exception e) {
+                logger.error("Could not send command {}", next.command(), e);
+            }
+        }
+    }
+
+    // Need to hold the lock
+    @Nullable
+    private PendingCommand pollNext() {
+        for (int i = 0; i < queues.length; i++) {
+            PendingCommand command = queues[i].pollFirst();
+            if (command != null) {
+                sentCounts.incrementAndGet(i);
+                return command;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stop accepting new commands, wait for the queued commands to be sent, then stop the writer thread.
+     *
+     * @param timeout the maximum time to wait for queued commands to be sent
+     */
+    public void close(@NotNull Duration timeout) {
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signalAll();
+            notFull.signalAll();
+
+            long remaining = timeout.toNanos();
+            while ((writing || !isEmpty()) && remaining > 0) {
+                remaining = drained.awaitNanos(remaining);
+            }
+
+            int dropped = discardQueued();
+            if (dropped > 0) {
+                logger.warn("Dropped {} outbound commands on close", dropped);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop every queued command without sending them.
+     * Used when the connection is lost: queued results and registrations belong to the closed connection,
+     * and would else be sent before the startup command of the next connection.
+     *
+     * @return the number of dropped commands
+     */
+    public int discardQueued() {
+        lock.lock();
+        try {
+            int dropped = 0;
+            for (int i = 0; i < queues.length; i++) {
+                droppedCounts.addAndGet(i, queues[i].size());
+                dropped += queues[i].size();
+                queues[i].clear();
+            }
+            notFull.signalAll();
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Need to hold the lock
+    private boolean isEmpty() {
+        for (ArrayDeque<PendingCommand> queue : queues) {
+            if (!queue.isEmpty()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of commands currently waiting in a lane
+     *
+     * @param lane the lane
+     * @return the lane queue depth
+     */
+    public int getQueueDepth(@NotNull OutboundLane lane) {
+        lock.lock();
+        try {
+            return queues[lane.ordinal()].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of commands of a lane taken by the writer to be sent
+     *
+     * @param lane the lane
+     * @return the lane sent command count
+     */
+    public long getSentCount(@NotNull OutboundLane lane) {
+        return sentCounts.get(lane.ordinal());
+    }
+
+    /**
+     * Get the number of commands of a lane dropped because the lane was full or the writer closed
+     *
+     * @param lane the lane
+     * @return the lane dropped command count
+     */
+    public long getDroppedCount(@NotNull OutboundLane lane) {
+        return droppedCounts.get(lane.ordinal());
+    }
+
+    /**
+     * Encode and send a command on the socket
+     */
+    @FunctionalInterface
+    public interface CommandSender {
+
+        /**
+         * Encode and send a command
+         *
+         * @param command the command name
+         * @param data    the data writer. null if the command has no data
+         * @throws Exception if the command could not be sent
+         */
+        void send(@NotNull String command, @Nullable OutboundEncoder.DataWriter data) throws Exception;
+
+    }
+
+    private record PendingCommand(@NotNull String command, @Nullable OutboundEncoder.DataWriter data) {
+    }
+
+}
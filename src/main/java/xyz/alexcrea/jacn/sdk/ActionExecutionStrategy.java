@@ -0,0 +1,128 @@
+package xyz.alexcrea.jacn.sdk;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Strategy used to execute action requests callbacks and listeners.
+ * <p>
+ * Parsing and validation of an action request is always done on the websocket thread.
+ * Then the action callback (or listeners), the result sending and the after result are executed
+ * on the executor of this strategy, in this order.
+ */
+@SuppressWarnings({"unused"})
+public final class ActionExecutionStrategy {
+
+    /**
+     * Execute action requests directly on the websocket thread.
+     * A slow action will delay every following message of the websocket.
+     * This is the default behavior.
+     */
+    public static final ActionExecutionStrategy INLINE = new ActionExecutionStrategy(() -> Runnable::run, false);
+
+    private final @NotNull Supplier<@NotNull Executor> executorSupplier;
+    private final boolean shutdownOnClose;
+
+    private ActionExecutionStrategy(@NotNull Supplier<@NotNull Executor> executorSupplier, boolean shutdownOnClose) {
+        this.executorSupplier = executorSupplier;
+        this.shutdownOnClose = shutdownOnClose;
+    }
+
+    /**
+     * Execute action requests on a fixed pool of daemon threads owned by the SDK.
+     * The pool is shut down when the SDK is closed.
+     *
+     * @param threads the number of threads of the pool
+     * @return the fixed pool strategy
+     */
+    @NotNull
+    public static ActionExecutionStrategy fixedPool(int threads) {
+        if (threads <= 0) throw new IllegalArgumentException("Thread count should be positive");
+
+        return new ActionExecutionStrategy(() -> Executors.newFixedThreadPool(threads, new ActionThreadFactory()), true);
+    }
+
+    /**
+     * Execute every action request on its own virtual thread.
+     * The executor is shut down when the SDK is closed.
+     * <p>
+     * Virtual threads need Java 21 or later.
+     *
+     * @return the virtual thread per request strategy
+     * @throws UnsupportedOperationException if the running java version do not support virtual threads
+     */
+    @NotNull
+    public static ActionExecutionStrategy virtualThreadPerRequest() {
+        MethodHandle factory;
+        try {
+            factory = MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this java version", e);
+        }
+
+        return new ActionExecutionStrategy(() -> {
+            try {
+                return (ExecutorService) factory.invoke();
+            } catch (Throwable e) {
+                throw new IllegalStateException("Could not create virtual thread executor", e);
+            }
+        }, true);
+    }
+
+    /**
+     * Execute action requests on a user provided executor.
+     * The executor is not shut down by the SDK.
+     *
+     * @param executor the executor to use
+     * @return the custom executor strategy
+     */
+    @NotNull
+    public static ActionExecutionStrategy of(@NotNull Executor executor) {
+        return new ActionExecutionStrategy(() -> executor, false);
+    }
+
+    /**
+     * Create the executor for a new SDK instance
+     *
+     * @return the executor to use
+     */
+    @NotNull
+    public Executor createExecutor() {
+        return executorSupplier.get();
+    }
+
+    /**
+     * Get if the executor created by this strategy is owned by the SDK and should be shut down with it
+     *
+     * @return if the executor should be shut down on SDK close
+     */
+    public boolean isShutdownOnClose() {
+        return shutdownOnClose;
+    }
+
+    private static class ActionThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger poolCount = new AtomicInteger();
+
+        private final int poolId = poolCount.incrementAndGet();
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NotNull Runnable runnable) {
+            Thread thread = new Thread(runnable, "jacn-action-" + poolId + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
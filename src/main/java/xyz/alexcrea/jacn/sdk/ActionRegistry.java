@@ -0,0 +1,154 @@
+package xyz.alexcrea.jacn.sdk;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import xyz.alexcrea.jacn.action.Action;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The actions currently registered on a Neuro SDK instance, by name.
+ * <p>
+ * This registry is lock-free: lookups never block, even while other threads register or unregister actions.
+ * Registering and unregistering a single action is atomic.
+ * <p>
+ * The registration payload sent to Neuro is kept next to each action.
+ * An action can be modified after being registered (its schema or options for example),
+ * so the payload Neuro knows can only be found here.
+ */
+@ApiStatus.Internal
+public class ActionRegistry {
+
+    private final @NotNull ConcurrentHashMap<String, Registration> actions;
+
+    public ActionRegistry() {
+        this.actions = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get a registered action by its name
+     *
+     * @param name the action name
+     * @return the registered action. null if absent
+     */
+    @Nullable
+    public Action get(@NotNull String name) {
+        Registration registration = actions.get(name);
+        return registration == null ? null : registration.action();
+    }
+
+    /**
+     * Get the registration payload that was sent to Neuro for the registered action of this name
+     *
+     * @param name the action name
+     * @return the sent registration payload. null if no action of this name is registered
+     */
+    @Nullable
+    public RawValue getSentPayload(@NotNull String name) {
+        Registration registration = actions.get(name);
+        return registration == null ? null : registration.payload();
+    }
+
+    /**
+     * Register an action if no action of the same name is currently registered.
+     *
+     * @param action  the action to register
+     * @param payload the registration payload sent to Neuro for this action
+     * @return true if no action of the same name was previously registered.
+     */
+    public boolean register(@NotNull Action action, @NotNull RawValue payload) {
+        return actions.putIfAbsent(action.getName(), new Registration(action, payload)) == null;
+    }
+
+    /**
+     * Unregister an action if it is currently registered.
+     *
+     * @param action the action to unregister
+     * @return false if it was not registered. true otherwise.
+     */
+    public boolean unregister(@NotNull Action action) {
+        Registration registration = actions.get(action.getName());
+        if (registration == null || registration.action() != action) return false;
+
+        return actions.remove(action.getName(), registration);
+    }
+
+    /**
+     * Replace a registered action by another action of the same name.
+     * The replacement can be the registered action itself, to update the sent registration payload.
+     *
+     * @param registered  the currently registered action
+     * @param replacement the action replacing it
+     * @param payload     the registration payload sent to Neuro for the replacement
+     * @return false if the registered action was not registered anymore. true otherwise.
+     */
+    public boolean replace(@NotNull Action registered, @NotNull Action replacement, @NotNull RawValue payload) {
+        if (!registered.getName().equals(replacement.getName())) {
+            throw new IllegalArgumentException("Can't replace an action by an action of another name");
+        }
+
+        Registration registration = actions.get(registered.getName());
+        if (registration == null || registration.action() != registered) return false;
+
+        return actions.replace(registered.getName(), registration, new Registration(replacement, payload));
+    }
+
+    /**
+     * Get if this exact action is currently registered
+     *
+     * @param action the action to test
+     * @return if the action is registered
+     */
+    public boolean isRegistered(@NotNull Action action) {
+        return get(action.getName()) == action;
+    }
+
+    /**
+     * Unregister every action
+     */
+    public void clear() {
+        actions.clear();
+    }
+
+    /**
+     * Get a copy of the currently registered actions
+     *
+     * @return list of registered actions
+     */
+    @NotNull
+    public List<Action> snapshot() {
+        List<Action> snapshot = new ArrayList<>(actions.size());
+        for (Registration registration : actions.values()) {
+            snapshot.add(registration.action());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Get a copy of the currently registered action names
+     *
+     * @return list of registered action names
+     */
+    @NotNull
+    public List<String> names() {
+        return new ArrayList<>(actions.keySet());
+    }
+
+    /**
+     * Get the number of registered actions
+     *
+     * @return the registered action count
+     */
+    public int size() {
+        return actions.size();
+    }
+
+    // Compared with equals by remove and replace. actions are compared by reference
+    private record Registration(@NotNull Action action, @NotNull RawValue payload) {
+    }
+
+}
@@ -0,0 +1,171 @@
+package xyz.alexcrea.jacn.sdk;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import xyz.alexcrea.jacn.action.ActionResult;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Bounded cache of action results by request id.
+ * <p>
+ * Used to not execute an action request again if Neuro send a request with an already known id.
+ * Entries expire after the time to live, and the oldest entries are evicted when the cache is full.
+ */
+@ApiStatus.Internal
+public class ActionResultCache {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    // Insertion ordered: the first entries are the oldest
+    private final @NotNull LinkedHashMap<String, Entry> entries;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Create an action result cache
+     *
+     * @param maxEntries the maximum number of cached request ids
+     * @param ttl        the time a result is kept after its request was received
+     */
+    public ActionResultCache(int maxEntries, @NotNull Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+
+        this.entries = new LinkedHashMap<>();
+    }
+
+    /**
+     * Try to claim a request id.
+     * <p>
+     * If the id is unknown, it gets marked as in progress and null is returned:
+     * the caller should execute the request then {@link #complete complete} the id.
+     * Else, the known entry is returned.
+     *
+     * @param id the request id
+     * @return null if the id was claimed. the previous entry of this id otherwise
+     */
+    @Nullable
+    public synchronized Entry claim(@NotNull String id) {
+        long now = System.nanoTime();
+        expire(now);
+
+        Entry entry = entries.get(id);
+        if (entry != null) {
+            hitCount++;
+            return entry;
+        }
+
+        missCount++;
+        entries.put(id, new Entry(now));
+        if (entries.size() > maxEntries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            iterator.next();
+            iterator.remove();
+            evictionCount++;
+        }
+        return null;
+    }
+
+    /**
+     * Store the result of a claimed request id
+     *
+     * @param result the result sent for the request
+     */
+    public synchronized void complete(@NotNull ActionResult result) {
+        Entry entry = entries.get(result.id());
+        if (entry != null) entry.result = result;
+    }
+
+    private void expire(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().createdAt < ttlNanos) return;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Drop every cached result.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Get the number of request ids currently cached
+     *
+     * @return the cached id count
+     */
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * Get the maximum number of request ids cached
+     *
+     * @return the cache capacity
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Get the number of requests with an already known id
+     *
+     * @return the hit count
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Get the number of requests with an unknown id
+     *
+     * @return the miss count
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Get the number of ids removed before they expired because the cache was full
+     *
+     * @return the eviction count
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * A cached request id
+     */
+    public static final class Entry {
+
+        private final long createdAt;
+        private volatile @Nullable ActionResult result;
+
+        private Entry(long createdAt) {
+            this.createdAt = createdAt;
+            this.result = null;
+        }
+
+        /**
+         * Get the result sent for this request id
+         *
+         * @return the sent result. null if the request is still executing
+         */
+        @Nullable
+        public ActionResult getResult() {
+            return result;
+        }
+
+    }
+
+}
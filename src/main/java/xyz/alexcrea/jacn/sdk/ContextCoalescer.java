@@ -0,0 +1,202 @@
+package xyz.alexcrea.jacn.sdk;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Merge bursts of silent context messages into a single context command.
+ * <p>
+ * Silent messages are kept until the flush window elapsed since the first pending message,
+ * or until the maximum number of pending messages is reached.
+ * A non-silent message flush the pending messages, then is sent immediately.
+ * <p>
+ * Every context command sent is counted once and reported once to the flush consumer.
+ * Window flushes are sent from the {@link SharedScheduler#sender() sender executor}, not from the scheduler thread.
+ * Sends are done while holding the coalescer lock to keep the messages in order.
+ */
+@ApiStatus.Internal
+public class ContextCoalescer {
+
+    private final static Logger logger = LoggerFactory.getLogger(ContextCoalescer.class);
+
+    private static final String SEPARATOR = "\n";
+
+    private final @NotNull Duration flushWindow;
+    private final int maxMessages;
+    private final @NotNull ContextSender sender;
+    private final @Nullable Consumer<@NotNull ContextFlush> onFlush;
+
+    private final @NotNull List<String> pending;
+    private @Nullable ScheduledFuture<?> scheduledFlush;
+    // Incremented when a window is scheduled. only the flush of the current window can flush it
+    private long windowGeneration;
+
+    private long messageCount;
+    private long flushCount;
+
+    /**
+     * Create a context coalescer
+     *
+     * @param flushWindow the maximum time a silent message can wait before being sent
+     * @param maxMessages the maximum number of messages merged together
+     * @param sender      the function sending context command
+     * @param onFlush     called after every flush. null if ignored
+     */
+    public ContextCoalescer(@NotNull Duration flushWindow, int maxMessages,
+                            @NotNull ContextSender sender, @Nullable Consumer<@NotNull ContextFlush> onFlush) {
+        this.flushWindow = flushWindow;
+        this.maxMessages = maxMessages;
+        this.sender = sender;
+        this.onFlush = onFlush;
+
+        this.pending = new ArrayList<>();
+    }
+
+    /**
+     * Add a context message.
+     *
+     * @param message the context message
+     * @param silent  if the message is silent
+     * @return false if a message could not be sent. true otherwise
+     */
+    public synchronized boolean add(@NotNull String message, boolean silent) {
+        messageCount++;
+        if (!silent) {
+            boolean flushed = flush(ContextFlush.Reason.NON_SILENT);
+            return send(message, 1, false, ContextFlush.Reason.NON_SILENT) && flushed;
+        }
+
+        pending.add(message);
+        if (pending.size() >= maxMessages) {
+            return flush(ContextFlush.Reason.SIZE);
+        }
+
+        if (scheduledFlush == null) {
+            long generation = ++windowGeneration;
+            scheduledFlush = SharedScheduler.get().schedule(() -> windowElapsed(generation),
+                    flushWindow.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return true;
+    }
+
+    /**
+     * Send every pending message as one silent context command.
+     *
+     * @param reason the reason of this flush
+     * @return false if the pending messages could not be sent. true otherwise
+     */
+    public synchronized boolean flush(@NotNull ContextFlush.Reason reason) {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (pending.isEmpty()) return true;
+
+        int messages = pending.size();
+        String merged = String.join(SEPARATOR, pending);
+        pending.clear();
+
+        return send(merged, messages, true, reason);
+    }
+
+    // Run on the scheduler thread: do not send from it
+    private void windowElapsed(long generation) {
+        try {
+            SharedScheduler.sender().execute(() -> windowFlush(generation));
+        } catch (RejectedExecutionException e) {
+            logger.error("Could not schedule the flush of coalesced context messages", e);
+        }
+    }
+
+    private synchronized void windowFlush(long generation) {
+        // The window was already flushed. a newer window may be pending and should not be flushed early
+        if (generation != windowGeneration || scheduledFlush == null) return;
+
+        flush(ContextFlush.Reason.WINDOW);
+    }
+
+    // Need to hold the lock
+    private boolean send(@NotNull String message, int messages, boolean silent, @NotNull ContextFlush.Reason reason) {
+        boolean sent = sender.send(message, silent);
+        flushCount++;
+        if (!sent) {
+            logger.error("Could not send {} context messages", messages);
+        }
+
+        if (onFlush != null) {
+            try {
+                onFlush.accept(new ContextFlush(messages, message.length(), reason, sent));
+            } catch (Exception e) {
+                logger.error("Exception thrown while executing the on context flush consumer", e);
+            }
+        }
+        return sent;
+    }
+
+    /**
+     * Drop every pending message without sending them.
+     */
+    public synchronized void clear() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        pending.clear();
+    }
+
+    /**
+     * Get the number of messages currently waiting to be sent
+     *
+     * @return the pending message count
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Get the total number of context messages added to this coalescer
+     *
+     * @return the total message count
+     */
+    public synchronized long getMessageCount() {
+        return messageCount;
+    }
+
+    /**
+     * Get the total number of context commands sent by this coalescer
+     *
+     * @return the total sent command count
+     */
+    public synchronized long getFlushCount() {
+        return flushCount;
+    }
+
+    /**
+     * Send a context command to Neuro
+     */
+    @FunctionalInterface
+    public interface ContextSender {
+
+        /**
+         * Send a context command
+         *
+         * @param message the context message
+         * @param silent  if the message is silent
+         * @return if the command was sent
+         */
+        boolean send(@NotNull String message, boolean silent);
+
+    }
+
+}
@@ -0,0 +1,45 @@
+package xyz.alexcrea.jacn.sdk;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Statistics of one flush of coalesced context messages.
+ *
+ * @param messages the number of context messages merged in this flush
+ * @param length   the length of the merged message sent to Neuro
+ * @param reason   why the pending messages were flushed
+ * @param sent     if the merged message was successfully sent
+ */
+public record ContextFlush(
+        int messages,
+        int length,
+        @NotNull Reason reason,
+        boolean sent
+) {
+
+    /**
+     * The reason of a context flush
+     */
+    public enum Reason {
+
+        /**
+         * The flush window elapsed
+         */
+        WINDOW,
+        /**
+         * The maximum number of pending messages was reached
+         */
+        SIZE,
+        /**
+         * A non-silent message was sent. Pending silent messages are sent before it.
+         * The non-silent message itself is reported as a separate flush of one message with this reason
+         */
+        NON_SILENT,
+        /**
+         * The SDK is closing
+         */
+        CLOSE,
+
+    }
+
+}
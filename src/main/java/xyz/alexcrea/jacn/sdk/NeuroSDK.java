@@ -1,5 +1,6 @@
 package xyz.alexcrea.jacn.sdk;
 
+import com.fasterxml.jackson.databind.util.RawValue;
 import org.java_websocket.framing.CloseFrame;
 import org.java_websocket.handshake.ServerHandshake;
 import org.jetbrains.annotations.ApiStatus;
@@ -10,12 +11,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import xyz.alexcrea.jacn.NeuroWebsocket;
 import xyz.alexcrea.jacn.action.Action;
+import xyz.alexcrea.jacn.protocol.OutboundWriter;
+import xyz.alexcrea.jacn.sdk.metrics.ActionMetricsRegistry;
 import xyz.alexcrea.jacn.sdk.proposed.ProposedFeature;
 
 import java.net.ConnectException;
 import java.net.URI;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * The instance used to communicate with the Neuro SDK API
@@ -25,6 +32,8 @@ public class NeuroSDK implements NeuroSDKInterface {
 
     private final static Logger logger = LoggerFactory.getLogger(NeuroSDK.class);
 
+    private static final Duration OUTBOUND_CLOSE_TIMEOUT = Duration.ofSeconds(1);
+
     private final @NotNull String gameName;
 
     private volatile @NotNull NeuroSDKState state;
@@ -32,12 +41,27 @@ public class NeuroSDK implements NeuroSDKInterface {
 
     private final List<Action> actionsToRegisterOnConnect;
 
-    // We have no assumption on thread. so we just lock on register/unregister
-    private final ReentrantReadWriteLock registerLock;
-    private final HashMap<String, Action> registeredActions;
+    // We have no assumption on thread. the registry is safe to use from any thread without locking
+    private final ActionRegistry registeredActions;
 
     private final Set<ProposedFeature> enabledFeatures;
 
+    private final @Nullable ContextCoalescer contextCoalescer;
+
+    private final @Nullable RegistrationBatcher registrationBatcher;
+
+    private final @Nullable OfflineBuffer offlineBuffer;
+    private final @NotNull OfflineBuffer.ReplayTarget offlineReplayTarget;
+
+    private final @Nullable ReconnectPolicy reconnectPolicy;
+    private final @NotNull Consumer<Reconnection> onReconnect;
+    private final Object reconnectLock;
+    private volatile boolean closeRequested;
+    private volatile boolean hasStarted;
+    private int reconnectAttempts;
+    private long disconnectedAt;
+    private @Nullable ScheduledFuture<?> reconnectTask;
+
     /**
      * Create and connect to Neuro sdk websocket via a builder
      *
@@ -50,17 +74,56 @@ public class NeuroSDK implements NeuroSDKInterface {
         this.state = NeuroSDKState.CONNECTING;
         this.actionsToRegisterOnConnect = new ArrayList<>(builder.getActions());
 
-        this.registerLock = new ReentrantReadWriteLock();
-        this.registeredActions = new HashMap<>();
+        this.registeredActions = new ActionRegistry();
 
         this.enabledFeatures = builder.getProposed();
 
+        Duration contextFlushWindow = builder.getContextFlushWindow();
+        if (contextFlushWindow != null) {
+            this.contextCoalescer = new ContextCoalescer(contextFlushWindow, builder.getContextMaxMessages(),
+                    this::internalSendContext, builder.getOnContextFlush());
+        } else {
+            this.contextCoalescer = null;
+        }
+
+        Duration registrationBatchWindow = builder.getRegistrationBatchWindow();
+        if (registrationBatchWindow != null) {
+            this.registrationBatcher = new RegistrationBatcher(registrationBatchWindow,
+                    (toRegister, toUnregister) -> applyRegistrationChanges(toRegister, toUnregister, false));
+        } else {
+            this.registrationBatcher = null;
+        }
+
+        if (builder.getOfflineBufferCapacity() > 0) {
+            this.offlineBuffer = new OfflineBuffer(builder.getOfflineBufferCapacity(), builder.getOfflineContextMaxAge());
+        } else {
+            this.offlineBuffer = null;
+        }
+        this.offlineReplayTarget = new OfflineBuffer.ReplayTarget() {
+            @Override
+            public void registration(@NotNull List<Action> toRegister, @NotNull List<Action> toUnregister) {
+                applyRegistrationChanges(toRegister, toUnregister, true);
+            }
+
+            @Override
+            public void context(@NotNull String message, boolean silent) {
+                internalSendContext(message, silent, true);
+            }
+        };
+
+        this.reconnectPolicy = builder.getReconnectPolicy();
+        this.onReconnect = builder.getOnReconnect();
+        this.reconnectLock = new Object();
+        this.closeRequested = false;
+        this.hasStarted = false;
+
         // Try to find the websocket address
         String env_address = System.getenv("NEURO_SDK_WS_URL");
 
         URI uri;
         if (builder.hasAddress() || env_address == null) {
-            uri = URI.create("ws://" + builder.getAddress() + ":" + builder.getPort());
+            // Ports above 32767 are stored as negative shorts
+            uri = URI.create("ws://" + builder.getAddress() + ":" + Short.toUnsignedInt(builder.getPort()));
         } else {
             uri = URI.create(env_address);
         }
@@ -69,9 +132,36 @@ public class NeuroSDK implements NeuroSDKInterface {
         this.websocket = new NeuroWebsocket(uri, this, builder,
                 this::onConnect, this::onClose, this::onConnectError);
 
+        if (builder.getFrameSink() != null) {
+            // Nothing to connect to. start as if the connection was just opened
+            startup();
+            return;
+        }
         this.websocket.connect();
     }
 
+    /**
+     * Get the websocket used by this SDK
+     *
+     * @return the websocket
+     */
+    @ApiStatus.Internal
+    @NotNull
+    public NeuroWebsocket getWebsocket() {
+        return websocket;
+    }
+
+    /**
+     * Handle a message as if it was received from the websocket.
+     * Used with {@link NeuroSDKBuilder#setFrameSink} to drive the SDK without a socket.
+     *
+     * @param message the raw message
+     */
+    @ApiStatus.Internal
+    public void receive(@NotNull String message) {
+        websocket.onMessage(message);
+    }
+
     @Override
     public @NotNull String getGameName() {
         return gameName;
@@ -88,63 +178,99 @@ public class NeuroSDK implements NeuroSDKInterface {
     }
 
     private void onClose(String s) {
+        if (this.contextCoalescer != null) this.contextCoalescer.clear();
+        if (this.registrationBatcher != null) this.registrationBatcher.clear();
+        if (this.reconnectPolicy != null && !this.closeRequested) {
+            if (this.offlineBuffer != null) this.offlineBuffer.reopen();
+            scheduleReconnect(this.reconnectPolicy);
+            return;
+        }
+
         if (this.state == NeuroSDKState.ERROR) return;
         this.state = NeuroSDKState.CLOSED;
     }
 
     private void onConnectError(ConnectException e) {
+        // The websocket is closed just after. it will try to reconnect there
+        if (this.reconnectPolicy != null && !this.closeRequested) return;
+
         this.state = NeuroSDKState.ERROR;
     }
 
-    @Override
-    public @NotNull NeuroSDKState getState() {
-        return state;
+    private void scheduleReconnect(@NotNull ReconnectPolicy policy) {
+        synchronized (reconnectLock) {
+            if (closeRequested) return;
+
+            long now = System.nanoTime();
+            if (disconnectedAt == 0) {
+                disconnectedAt = now;
+                reconnectAttempts = 0;
+            }
+            reconnectAttempts++;
+
+            if (!policy.canAttempt(reconnectAttempts, Duration.ofNanos(now - disconnectedAt))) {
+                logger.error("Could not reconnect to the websocket after {} attempts. giving up", reconnectAttempts - 1);
+                this.state = NeuroSDKState.ERROR;
+                return;
+            }
+
+            this.state = NeuroSDKState.RECONNECTING;
+            Duration delay = policy.delayBefore(reconnectAttempts);
+            logger.info("Trying to reconnect to the websocket in {}ms (attempt {})", delay.toMillis(), reconnectAttempts);
+
+            reconnectTask = SharedScheduler.get().schedule(this::reconnect, delay.toNanos(), TimeUnit.NANOSECONDS);
+        }
     }
 
-    /**
-     * Register an action if the action is not currently registered.
-     * This method do not lock, but you need to lock first before using it.
-     *
-     * @param action the action to unregister
-     * @return true if no action of the same id was previously registered.
-     */
-    private boolean internalRegisterAction(@NotNull Action action) {
-        return registeredActions.putIfAbsent(action.getName(), action) == null;
+    private void reconnect() {
+        // Reconnecting wait for the previous websocket threads to stop. so it should not block the shared scheduler
+        Thread thread = new Thread(() -> {
+            if (closeRequested) return;
+            websocket.reconnect();
+        }, "jacn-reconnect");
+        thread.setDaemon(true);
+        thread.start();
     }
 
-    /**
-     * Unregister and action.
-     * This method do not lock, but you need to lock first before using it.
-     *
-     * @param action the action to unregister
-     * @return false if it was not registered. true otherwise.
-     */
-    private boolean internalUnregisterAction(@NotNull Action action) {
-        return registeredActions.remove(action.getName(), action);
+    private void onStarted(int registeredCount) {
+        Reconnection reconnection;
+        synchronized (reconnectLock) {
+            if (disconnectedAt == 0) return;
+
+            reconnection = new Reconnection(reconnectAttempts,
+                    Duration.ofNanos(System.nanoTime() - disconnectedAt), registeredCount);
+            disconnectedAt = 0;
+            reconnectAttempts = 0;
+            reconnectTask = null;
+        }
+
+        try {
+            onReconnect.accept(reconnection);
+        } catch (Exception e) {
+            logger.error("Exception thrown while executing the on reconnect consumer", e);
+        }
+    }
+
+    @Override
+    public @NotNull NeuroSDKState getState() {
+        return state;
     }
 
     @Override
     @Nullable
     public Action getAction(@NotNull String name) {
-        registerLock.readLock().lock();
-        Action action = registeredActions.get(name);
-        registerLock.readLock().unlock();
-
-        return action;
+        return registeredActions.get(name);
     }
 
     @Override
     @NotNull
     public List<Action> getActions(@NotNull List<String> names) {
-        registerLock.readLock().lock();
-
         List<Action> actions = new ArrayList<>();
         for (String name : names) {
             Action action = getAction(name);
             if (action != null) actions.add(action);
         }
 
-        registerLock.readLock().unlock();
         return actions;
     }
 
@@ -156,60 +282,82 @@ public class NeuroSDK implements NeuroSDKInterface {
 
     /**
      * Send a startup command.
-     * clearing every action and registering all the startup actions
+     * clearing every action and registering all the startup actions.
+     * If the SDK was already started (after a reconnection for example),
+     * the currently registered actions are registered again instead.
      *
      * @return if the command was successful
      */
     public boolean startup() {
-        registerLock.writeLock().lock();
+        // On restart, replay what was registered before
+        List<Action> toRegister = hasStarted ? registeredActions.snapshot() : actionsToRegisterOnConnect;
+
         // Clear previous actions if any
         this.registeredActions.clear();
 
-        if (!websocket.sendCommand("startup", null, true)) {
+        if (!websocket.sendCommand("startup", true)) {
             logger.error("Could not send startup command to the websocket");
             this.state = NeuroSDKState.ERROR;
-
-            registerLock.writeLock().unlock();
             return false;
         }
 
         // register the startup actions
-        if (!internalRegisterActions(actionsToRegisterOnConnect)) {
+        if (!internalRegisterActions(toRegister)) {
             logger.error("Could not register startup actions");
             this.state = NeuroSDKState.ERROR;
-
-            registerLock.writeLock().unlock();
             return false;
         }
-        registerLock.writeLock().unlock();
 
         // set the state to connected when startup is done
-        this.state = NeuroSDKState.CONNECTED;
+        this.hasStarted = true;
+        if (offlineBuffer != null) {
+            // Commands sent while not connected are replayed before any new command
+            offlineBuffer.replay(offlineReplayTarget, () -> this.state = NeuroSDKState.CONNECTED);
+        } else {
+            this.state = NeuroSDKState.CONNECTED;
+        }
+
+        onStarted(toRegister.size());
         return true;
     }
 
     @Override
     public boolean sendContext(@NotNull String message, boolean silent) {
-        if (!NeuroSDKState.CONNECTED.equals(this.state)) return false;
+        if (!NeuroSDKState.CONNECTED.equals(this.state)) {
+            if (!isBufferingOffline()) return false;
+
+            OfflineBuffer.Result result = offlineBuffer.offerContext(message, silent);
+            if (result != OfflineBuffer.Result.REPLAYED) return result == OfflineBuffer.Result.BUFFERED;
+        }
+
+        if (contextCoalescer != null) {
+            return contextCoalescer.add(message, silent);
+        }
+        return internalSendContext(message, silent);
+    }
 
-        return websocket.sendCommand("context", Map.of(
-                "message", message,
-                "silent", silent
-        ));
+    private boolean internalSendContext(@NotNull String message, boolean silent) {
+        return internalSendContext(message, silent, false);
+    }
+
+    private boolean internalSendContext(@NotNull String message, boolean silent, boolean bypassConnected) {
+        return websocket.sendCommand("context", generator -> {
+            generator.writeStringField("message", message);
+            generator.writeBooleanField("silent", silent);
+        }, bypassConnected);
     }
 
     private boolean internalRegisterActions(List<Action> actions) {
         if (actions.isEmpty()) return true;
 
-        registerLock.readLock().lock();
-        List<Map<String, Object>> actionList = new ArrayList<>();
+        List<RawValue> actionList = new ArrayList<>();
         for (Action action : actions) {
-            if (!internalRegisterAction(action)) {
+            RawValue payload = action.getRegistrationPayload();
+            if (!registeredActions.register(action, payload)) {
                 logger.error("Could not register action {}", action.getName());
             }
-            actionList.add(action.asMap());
+            actionList.add(payload);
         }
-        registerLock.readLock().unlock();
 
         return websocket.sendCommand("actions/register", Map.of("actions", actionList), true);
     }
@@ -224,19 +372,29 @@ public class NeuroSDK implements NeuroSDKInterface {
      */
     @ApiStatus.Internal
     public boolean reRegisterActions() {
-        registerLock.readLock().lock();
-        List<Map<String, Object>> actionList = new ArrayList<>();
-        for (Action action : this.registeredActions.values()) {
-            actionList.add(action.asMap());
+        List<RawValue> actionList = new ArrayList<>();
+        for (Action action : this.registeredActions.snapshot()) {
+            RawValue payload = action.getRegistrationPayload();
+            // Keep track of what Neuro now know. the action may have changed since it was registered
+            registeredActions.replace(action, action, payload);
+            actionList.add(payload);
         }
-        registerLock.readLock().unlock();
 
         return websocket.sendCommand("actions/register", Map.of("actions", actionList), true);
     }
 
     @Override
     public boolean registerActions(List<Action> actions) {
-        if (!NeuroSDKState.CONNECTED.equals(this.state)) return false;
+        if (!NeuroSDKState.CONNECTED.equals(this.state)) {
+            if (!isBufferingOffline()) return false;
+
+            OfflineBuffer.Result result = offlineBuffer.offerRegistration(actions, true);
+            if (result != OfflineBuffer.Result.REPLAYED) return result == OfflineBuffer.Result.BUFFERED;
+        }
+        if (registrationBatcher != null) {
+            registrationBatcher.add(actions, true);
+            return true;
+        }
         return internalRegisterActions(actions);
     }
 
@@ -247,21 +405,48 @@ public class NeuroSDK implements NeuroSDKInterface {
 
     @Override
     public boolean unregisterActions(List<Action> actions) {
-        if (!NeuroSDKState.CONNECTED.equals(this.state)) return false;
+        if (!NeuroSDKState.CONNECTED.equals(this.state)) {
+            if (!isBufferingOffline()) return false;
+
+            OfflineBuffer.Result result = offlineBuffer.offerRegistration(actions, false);
+            if (result != OfflineBuffer.Result.REPLAYED) return result == OfflineBuffer.Result.BUFFERED;
+        }
+        if (registrationBatcher != null) {
+            registrationBatcher.add(actions, false);
+            return true;
+        }
+        return internalUnregisterActions(actions, false);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> registerActionsAsync(@NotNull List<Action> actions) {
+        if (registrationBatcher != null && NeuroSDKState.CONNECTED.equals(this.state)) {
+            return registrationBatcher.add(actions, true);
+        }
+        return CompletableFuture.completedFuture(registerActions(actions));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> unregisterActionsAsync(@NotNull List<Action> actions) {
+        if (registrationBatcher != null && NeuroSDKState.CONNECTED.equals(this.state)) {
+            return registrationBatcher.add(actions, false);
+        }
+        return CompletableFuture.completedFuture(unregisterActions(actions));
+    }
+
+    private boolean internalUnregisterActions(List<Action> actions, boolean bypassConnected) {
         if (actions.isEmpty()) return true;
 
-        registerLock.readLock().lock();
         List<String> actionNames = new ArrayList<>();
         for (Action action : actions) {
-            if (!internalUnregisterAction(action)) {
+            if (!registeredActions.unregister(action)) {
                 logger.error("Could not unregister action {}", action.getName());
             }
 
             actionNames.add(action.getName());
         }
-        registerLock.readLock().unlock();
 
-        return websocket.sendCommand("actions/unregister", Map.of("action_names", actionNames));
+        return websocket.sendCommand("actions/unregister", Map.of("action_names", actionNames), bypassConnected);
     }
 
     @Override
@@ -269,13 +454,92 @@ public class NeuroSDK implements NeuroSDKInterface {
         return unregisterActions(List.of(actions));
     }
 
+    @Override
+    public boolean syncActions(@NotNull List<Action> actions) {
+        // Pending batched commands need to be applied first: they only reach the registry when flushed,
+        // and would be applied over this sync later
+        if (registrationBatcher != null) registrationBatcher.flush();
+
+        Map<String, Action> desired = new LinkedHashMap<>();
+        for (Action action : actions) {
+            desired.put(action.getName(), action);
+        }
+
+        List<Action> toUnregister = new ArrayList<>();
+        for (Action registered : registeredActions.snapshot()) {
+            if (!desired.containsKey(registered.getName())) toUnregister.add(registered);
+        }
+        List<Action> toRegister = new ArrayList<>(desired.values());
+
+        if (!NeuroSDKState.CONNECTED.equals(this.state)) {
+            if (!isBufferingOffline()) return false;
+
+            // Replace buffered registrations too, or actions registered while offline would still be replayed
+            OfflineBuffer.Result result = offlineBuffer.offerSync(toRegister, registeredActions.snapshot());
+            if (result != OfflineBuffer.Result.REPLAYED) return result == OfflineBuffer.Result.BUFFERED;
+        }
+
+        return applyRegistrationChanges(toRegister, toUnregister, false);
+    }
+
+    @Override
+    public boolean syncActions(@NotNull Action... actions) {
+        return syncActions(List.of(actions));
+    }
+
+    /**
+     * Register and unregister actions, only sending what changed compared to the registered actions.
+     * <p>
+     * Actions are compared by the registration payload that was sent to Neuro, not by reference:
+     * an action modified since it was registered (its schema or options for example) is sent again.
+     * If the payload was already sent, the action is only replaced locally.
+     * Else the registered one is unregistered and the new one registered.
+     *
+     * @param register        the actions that should be registered
+     * @param unregister      the actions that should not be registered. should not share names with register
+     * @param bypassConnected if commands should be sent even if the SDK is not connected
+     * @return if the commands were successful
+     */
+    private boolean applyRegistrationChanges(@NotNull Collection<Action> register, @NotNull Collection<Action> unregister,
+                                             boolean bypassConnected) {
+        List<Action> toUnregister = new ArrayList<>();
+        for (Action action : unregister) {
+            Action registered = registeredActions.get(action.getName());
+            if (registered != null) toUnregister.add(registered);
+        }
+
+        List<Action> toRegister = new ArrayList<>();
+        for (Action action : register) {
+            Action registered = registeredActions.get(action.getName());
+            if (registered == null) {
+                toRegister.add(action);
+                continue;
+            }
+
+            RawValue payload = action.getRegistrationPayload();
+            if (payload.equals(registeredActions.getSentPayload(action.getName()))
+                    && (registered == action || registeredActions.replace(registered, action, payload))) {
+                // Same payload: Neuro already know this action
+                continue;
+            }
+
+            toUnregister.add(registered);
+            toRegister.add(action);
+        }
+
+        boolean success = internalUnregisterActions(toUnregister, bypassConnected);
+        return internalRegisterActions(toRegister) && success;
+    }
+
     @Override
     public boolean forceActions(
             @Nullable String state,
             @NotNull String query,
             boolean ephemeral,
             @NotNull List<Action> action) {
-        List<String> actionNames = new ArrayList<>(registeredActions.keySet());
+        // Forced actions may still be waiting to be registered
+        if (registrationBatcher != null) registrationBatcher.flush();
+        List<String> actionNames = registeredActions.names();
 
         HashMap<String, Object> toSend = new HashMap<>();
         if (state != null) toSend.put("state", state);
@@ -343,7 +607,79 @@ public class NeuroSDK implements NeuroSDKInterface {
 
     @Override
     public List<Action> getRegisteredActions() {
-        return new ArrayList<>(this.registeredActions.values());
+        return this.registeredActions.snapshot();
+    }
+
+    /**
+     * Get the context coalescer of this SDK.
+     * Can be used to get context coalescing statistics.
+     *
+     * @return the context coalescer. null if context coalescing is disabled
+     */
+    @Nullable
+    public ContextCoalescer getContextCoalescer() {
+        return contextCoalescer;
+    }
+
+    /**
+     * Get the registration batcher of this SDK.
+     * Can be used to get registration batching statistics.
+     *
+     * @return the registration batcher. null if registration batching is disabled
+     */
+    @Nullable
+    public RegistrationBatcher getRegistrationBatcher() {
+        return registrationBatcher;
+    }
+
+    /**
+     * Get the offline buffer of this SDK.
+     * Can be used to get buffer occupancy and dropped command metrics.
+     *
+     * @return the offline buffer. null if commands sent while not connected are not buffered
+     */
+    @Nullable
+    public OfflineBuffer getOfflineBuffer() {
+        return offlineBuffer;
+    }
+
+    private boolean isBufferingOffline() {
+        NeuroSDKState state = this.state;
+        return offlineBuffer != null &&
+                (state == NeuroSDKState.CONNECTING || state == NeuroSDKState.RECONNECTING);
+    }
+
+    /**
+     * Get the action result cache of this SDK.
+     * Can be used to get hit and miss counts of duplicated action requests.
+     *
+     * @return the action result cache. null if action results are not cached
+     */
+    @Nullable
+    public ActionResultCache getActionResultCache() {
+        return websocket.getActionResultCache();
+    }
+
+    /**
+     * Get the action metrics of this SDK.
+     * Can be used to get per action request outcome counts and parse, validate, handle and send latencies.
+     *
+     * @return the action metrics. null if action metrics are not recorded
+     */
+    @Nullable
+    public ActionMetricsRegistry getActionMetrics() {
+        return websocket.getActionMetrics();
+    }
+
+    /**
+     * Get the outbound writer of this SDK.
+     * Can be used to get queue depth and dropped command metrics.
+     *
+     * @return the outbound writer. null if commands are sent from the calling thread
+     */
+    @Nullable
+    public OutboundWriter getOutboundWriter() {
+        return websocket.getOutboundWriter();
     }
 
     @Override
@@ -358,12 +694,30 @@ public class NeuroSDK implements NeuroSDKInterface {
      * @param reason Reason of why the sdk is closed
      */
     public void close(String reason) {
+        this.closeRequested = true;
+        synchronized (reconnectLock) {
+            if (reconnectTask != null) {
+                reconnectTask.cancel(false);
+                reconnectTask = null;
+            }
+        }
+
+        if (this.contextCoalescer != null && this.state == NeuroSDKState.CONNECTED) {
+            this.contextCoalescer.flush(ContextFlush.Reason.CLOSE);
+        }
+        if (this.registrationBatcher != null) {
+            if (this.state == NeuroSDKState.CONNECTED) this.registrationBatcher.flush();
+            else this.registrationBatcher.clear();
+        }
+
         if (this.state == NeuroSDKState.CONNECTED) {
             this.onClose(reason);
         }
 
         this.state = NeuroSDKState.CLOSED;
+        this.websocket.closeOutboundWriter(OUTBOUND_CLOSE_TIMEOUT);
         this.websocket.close(CloseFrame.NORMAL, reason);
+        this.websocket.shutdownActionExecutor();
     }
 
     /**
@@ -8,15 +8,20 @@ import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import xyz.alexcrea.jacn.action.Action;
+import xyz.alexcrea.jacn.action.ActionRequest;
+import xyz.alexcrea.jacn.action.ActionResult;
 import xyz.alexcrea.jacn.listener.NeuroSDKListener;
 import xyz.alexcrea.jacn.sdk.proposed.ProposedFeature;
 
 import java.net.ConnectException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Create a new builder to create a Neuro sdk instance
@@ -44,6 +49,31 @@ public class NeuroSDKBuilder {
 
     private final EnumSet<ProposedFeature> proposed;
 
+    private @NotNull ActionExecutionStrategy actionExecution;
+    private @Nullable Duration actionTimeout;
+    private @Nullable Function<@NotNull ActionRequest, @NotNull ActionResult> timeoutResult;
+
+    private int resultCacheSize;
+    private @Nullable Duration resultCacheTtl;
+
+    private boolean actionMetrics;
+
+    private @Nullable Duration contextFlushWindow;
+    private int contextMaxMessages;
+    private @Nullable Consumer<ContextFlush> onContextFlush;
+
+    private @Nullable OutboundWriterConfig outboundWriter;
+
+    private @Nullable Duration registrationBatchWindow;
+
+    private int offlineBufferCapacity;
+    private @Nullable Duration offlineContextMaxAge;
+
+    private @Nullable ReconnectPolicy reconnectPolicy;
+    private @Nullable Consumer<Reconnection> onReconnect;
+
+    private @Nullable Consumer<ByteBuffer> frameSink;
+
     /**
      * Create a new builder for
      * <p>
@@ -87,6 +117,34 @@ public class NeuroSDKBuilder {
         this.actionList = new ArrayList<>();
 
         this.proposed = EnumSet.noneOf(ProposedFeature.class);
+
+        this.actionExecution = ActionExecutionStrategy.INLINE;
+        this.actionTimeout = null;
+        this.timeoutResult = null;
+
+        this.resultCacheSize = 0;
+        this.resultCacheTtl = null;
+
+        this.actionMetrics = false;
+
+        this.contextFlushWindow = null;
+        this.contextMaxMessages = 0;
+        this.onContextFlush = null;
+
+        this.outboundWriter = null;
+
+        this.registrationBatchWindow = null;
+
+        this.offlineBufferCapacity = 0;
+        this.offlineContextMaxAge = null;
+
+        this.frameSink = null;
+
+        this.reconnectPolicy = null;
+        this.onReconnect = reconnection -> {
+            logger.info("NeuroSDK reconnected after {} attempts in {}ms",
+                    reconnection.attempts(), reconnection.timeToRecovery().toMillis());
+        };
     }
 
     /**
@@ -383,6 +441,464 @@ public class NeuroSDKBuilder {
         return this;
     }
 
+    /**
+     * Get the strategy used to execute action requests.
+     *
+     * @return the action execution strategy
+     */
+    @NotNull
+    public ActionExecutionStrategy getActionExecution() {
+        return actionExecution;
+    }
+
+    /**
+     * Set the strategy used to execute action requests.
+     * Default to {@link ActionExecutionStrategy#INLINE}: actions are executed on the websocket thread.
+     * <p>
+     * Using another strategy let slow actions run without blocking the following websocket messages.
+     * Parsing and validation stay on the websocket thread,
+     * and for every request the result is always sent before the after result is called.
+     *
+     * @param actionExecution the action execution strategy
+     * @return this
+     */
+    @NotNull
+    public NeuroSDKBuilder setActionExecution(@NotNull ActionExecutionStrategy actionExecution) {
+        this.actionExecution = actionExecution;
+        return this;
+    }
+
+    /**
+     * Get the default maximum time an action request can take before a fallback result is sent.
+     *
+     * @return the default action timeout. null if there is no default timeout
+     */
+    @Nullable
+    public Duration getActionTimeout() {
+        return actionTimeout;
+    }
+
+    /**
+     * Set the default maximum time an action request can take before a fallback result is sent.
+     * Default to null: no timeout.
+     * <p>
+     * It is used for every action that do not set its own timeout (see {@link Action#setTimeout}).
+     *
+     * @param actionTimeout the default action timeout. null to disable
+     * @return this
+     */
+    @NotNull
+    public NeuroSDKBuilder setActionTimeout(@Nullable Duration actionTimeout) {
+        this.actionTimeout = actionTimeout;
+        return this;
+    }
+
+    /**
+     * Get the default function creating the result sent when an action request times out.
+     *
+     * @return the default timeout result function. null if timed out requests are reported as failures
+     */
+    @Nullable
+    public Function<@NotNull ActionRequest, @NotNull ActionResult> getTimeoutResult() {
+        return timeoutResult;
+    }
+
+    /**
+     * Set the default function creating the result sent when an action request times out.
+     * Default to null: the request is reported the same way as a failing action callback
+     * (see {@link Action#setReportFailure}).
+     * <p>
+     * It is used for every action that do not set its own timeout result (see {@link Action#setTimeoutResult}).
+     * It is called on the SDK scheduler thread and should return fast.
+     *
+     * @param timeoutResult the default timeout result function. null to report timed out requests as failures
+     * @return this
+     */
+    @NotNull
+    public NeuroSDKBuilder setTimeoutResult(@Nullable Function<@NotNull ActionRequest, @NotNull ActionResult> timeoutResult) {
+        this.timeoutResult = timeoutResult;
+        return this;
+    }
+
+    /**
+     * Enable the action result cache.
+     * Disabled by default.
+     * <p>
+     * Results sent for action requests are kept by request id.
+     * If Neuro sends an action request with a known id (for example a retry around a reconnect),
+     * the previous result is sent again instead of executing the action again.
+     * If the first request is still executing, the duplicate is ignored.
+     *
+     * @param maxEntries the maximum number of cached request ids. the oldest ids are evicted first
+     * @param ttl        the time a result is kept after its request was received
+     * @return this
+     */
+    @NotNull
+    public NeuroSDKBuilder setResultCache(int maxEntries, @NotNull Duration ttl) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("Max entries should be positive");
+        if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("Time to live should be positive");
+
+        this.resultCacheSize = maxEntries;
+        this.resultCacheTtl = ttl;
+        return this;
+    }
+
+    /**
+     * Disable the action result cache. every action request will be executed.
+     *
+     * @return this
+     */
+    @NotNull
+    public NeuroSDKBuilder disableResultCache() {
+        this.resultCacheSize = 0;
+        this.resultCacheTtl = null;
+        return this;
+    }
+
+    /**
+     * Get the maximum number of request ids in the action result cache
+     *
+     * @return the result cache size. 0 if the result cache is disabled
+     */
+    public int getResultCacheSize() {
+        return resultCacheSize;
+    }
+
+    /**
+     * Get the time a result is kept in the action result cache
+     *
+     * @return the result time to live. null if the result cache is disabled
+     */
+    @Nullable
+    public Duration getResultCacheTtl() {
+        return resultCacheTtl;
+    }
+
+    /**
+     * Set if per action metrics are recorded.
+     * Disabled by default.
+     * <p>
+     * When enabled, outcome counts and the time spent parsing, validating, handling and sending the result
+     * of every action request are recorded. See {@link NeuroSDK#getActionMetrics()}.
+     *
+     * @param actionMetrics if action metrics should be recorded
+     * @return this
+     */
+    @NotNull
+    public NeuroSDKBuilder setActionMetrics(boolean actionMetrics) {
+        this.actionMetrics = actionMetrics;
+        return this;
+    }
+
+    /**
+     * Get if per action metrics are recorded
+     *
+     * @return if action metrics are recorded
+     */
+    public boolean isActionMetrics() {
+        return actionMetrics;
+    }
+
+    /**
+     * Enable context coalescing.
+     * Disabled by default.
+     * <p>
+     * Consecutive silent context messages are merged, separated by line breaks, into one context command.
+     * Pending messages are sent when the flush window elapsed since the first pending message,
+     * when the maximum number of pending messages is reached,
+     * or just before a non-silent message (that is always sent immediately).
+     *
+     * @param flushWindow the maximum time a silent message can wait before being sent
+     * @param maxMessages the maximum number of messages merged together
+     * @return this
+     */
+    @NotNull
+    public NeuroSDKBuilder setContextCoalescing(@NotNull Duration flushWindow, int maxMessages) {
+        if (flushWindow.isNegative() || flushWindow.isZero()) {
+            throw new IllegalArgumentException("Flush window should be positive");
+        }
+        if (maxMessages <= 0) throw new IllegalArgumentException("Max messages should be positive");
+
+        this.contextFlushWindow = flushWindow;
+        this.contextMaxMessages = maxMessages;
+        return this;
+    }
+
+    /**
+     * Disable context coalescing. every context message will be sent immediately.
+     *
+     * @return this
+     */
+    @NotNull
+    public NeuroSDKBuilder disableContextCoalescing() {
+        this.contextFlushWindow = null;
+        this.contextMaxMessages = 0;
+        return this;
+    }
+
+    /**
+     * Get if context coalescing is enabled
+     *
+     * @return if context coalescing is enabled
+     */
+    public boolean isContextCoalescing() {
+        return contextFlushWindow != null;
+    }
+
+    /**
+     * Get the context coalescing flush window
+     *
+     * @return the flush window. null if context coalescing is disabled
+     */
+    @Nullable
+    public Duration getContextFlushWindow() {
+        return contextFlushWindow;
+    }
+
+    /**
+     * Get the maximum number of context messages merged together
+     *
+     * @return the maximum number of merged messages. 0 if context coalescing is disabled
+     */
+    public int getContextMaxMessages() {
+        return contextMaxMessages;
+    }
+
+    /**
+     * Get the consumer called after every flush of coalesced context messages
+     *
+     * @return the consumer to execute on context flush. null if none
+     */
+    @Nullable
+    public Consumer<ContextFlush> getOnContextFlush() {
+        return onContextFlush;
+    }
+
+    /**
+     * Set the consumer called after every flush of coalesced context messages.
+     * Only used if context coalescing is enabled.
+     *
+     * @param onContextFlush the consumer to execute on context flush. null if none
+     * @return this
+     */
+    @NotNull
+    public NeuroSDKBuilder setOnContextFlush(@Nullable Consumer<ContextFlush> onContextFlush) {
+        this.onContextFlush = onContextFlush;
+        return this;
+    }
+
+    /**
+     * Get the outbound writer configuration
+     *
+     * @return the outbound writer configuration. null if commands are sent from the calling thread
+     */
+    @Nullable
+    public OutboundWriterConfig getOutboundWriter() {
+        return outboundWriter;
+    }
+
+    /**
+     * Send every command from a dedicated writer thread with priority lanes.
+     * Default to null: commands are sent from the thread calling the SDK.
+     * <p>
+     * Action results are sent first, then registration commands, then context messages.
+     * So a burst of context do not delay action results.
+     * When enabled, SDK methods return true once the command is queued and not once it is sent.
+     * Commands still queued when the connection is lost are dropped.
+     *
+     * @param outboundWriter the outbound writer configuration. null to send from the calling thread
+     * @return this
+     */
+    @NotNull
+    public NeuroSDKBuilder setOutboundWriter(@Nullable OutboundWriterConfig outboundWriter) {
+        this.outboundWriter = outboundWriter;
+        return this;
+    }
+
+    /**
+     * Buffer context, register and unregister commands sent while the SDK is connecting or reconnecting.
+     * Disabled by default: these commands fail while the SDK is not connected.
+     * <p>
+     * Buffered commands are sent in one burst just after the startup command.
+     * Only the last register or unregister of each action is kept, and the replay only sends what changed
+     * compared to the registered actions. Context messages older than the maximum age are dropped.
+     * When the buffer is full, the oldest context message is dropped.
+     * If there is no context message to drop, the new command is dropped and the SDK method return false.
+     * <p>
+     * Buffered actions are not part of {@link NeuroSDK#getRegisteredActions} until they are replayed.
+     *
+     * @param capacity      the maximum number of buffered commands
+     * @param maxContextAge the maximum age of a context message to be sent on replay. null for no limit
+     * @return this
+     */
+    @NotNull
+    public NeuroSDKBuilder setOfflineBuffer(int capacity, @Nullable Duration maxContextAge) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity should be positive");
+
+        this.offlineBufferCapacity = capacity;
+        this.offlineContextMaxAge = maxContextAge;
+        return this;
+    }
+
+    /**
+     * Disable the offline buffer. commands sent while the SDK is not connected will fail.
+     *
+     * @return this
+     */
+    @NotNull
+    public NeuroSDKBuilder disableOfflineBuffer() {
+        this.offlineBufferCapacity = 0;
+        this.offlineContextMaxAge = null;
+        return this;
+    }
+
+    /**
+     * Get the maximum number of commands buffered while the SDK is not connected
+     *
+     * @return the offline buffer capacity. 0 if the offline buffer is disabled
+     */
+    public int getOfflineBufferCapacity() {
+        return offlineBufferCapacity;
+    }
+
+    /**
+     * Get the maximum age of a buffered context message to be sent on replay
+     *
+     * @return the maximum context age. null if there is no limit
+     */
+    @Nullable
+    public Duration getOfflineContextMaxAge() {
+        return offlineContextMaxAge;
+    }
+
+    /**
+     * Enable registration batching.
+     * Disabled by default.
+     * <p>
+     * Register and unregister calls made while connected are collected for up to the batch window,
+     * then sent together as at most one unregister and one register command.
+     * Registering then unregistering an action in the same window (or the reverse) cancel each other out,
+     * unless the action changed since it was sent: it is then registered again with its new schema.
+     * Use {@link NeuroSDK#registerActionsAsync} and {@link NeuroSDK#unregisterActionsAsync}
+     * to know when the batch was sent.
+     * <p>
+     * Batched actions are not part of {@link NeuroSDK#getRegisteredActions} until they are sent.
+     *
+     * @param window the maximum time a register or unregister call can wait before being sent
+     * @return this
+     */
+    @NotNull
+    public NeuroSDKBuilder setRegistrationBatching(@NotNull Duration window) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Batch window should be positive");
+        }
+
+        this.registrationBatchWindow = window;
+        return this;
+    }
+
+    /**
+     * Disable registration batching. every register and unregister call will be sent immediately.
+     *
+     * @return this
+     */
+    @NotNull
+    public NeuroSDKBuilder disableRegistrationBatching() {
+        this.registrationBatchWindow = null;
+        return this;
+    }
+
+    /**
+     * Get the registration batching window
+     *
+     * @return the batch window. null if registration batching is disabled
+     */
+    @Nullable
+    public Duration getRegistrationBatchWindow() {
+        return registrationBatchWindow;
+    }
+
+    /**
+     * Get the automatic reconnect policy
+     *
+     * @return the reconnect policy. null if the SDK do not reconnect
+     */
+    @Nullable
+    public ReconnectPolicy getReconnectPolicy() {
+        return reconnectPolicy;
+    }
+
+    /**
+     * Set the automatic reconnect policy.
+     * Default to null: the SDK stay closed when the connection is lost.
+     * <p>
+     * If set, the SDK try to reconnect when the connection is lost or could not be established,
+     * unless it was closed by {@link NeuroSDK#close}.
+     * On reconnect, the startup command is sent again,
+     * then every action that was registered when the connection was lost is registered again.
+     *
+     * @param reconnectPolicy the reconnect policy. null to disable automatic reconnection
+     * @return this
+     */
+    @NotNull
+    public NeuroSDKBuilder setReconnectPolicy(@Nullable ReconnectPolicy reconnectPolicy) {
+        this.reconnectPolicy = reconnectPolicy;
+        return this;
+    }
+
+    /**
+     * Get the consumer to be executed after a successful automatic reconnection.
+     * Default to log the reconnection.
+     *
+     * @return the consumer to execute on reconnect
+     */
+    @NotNull
+    public Consumer<Reconnection> getOnReconnect() {
+        return onReconnect == null ? reconnection -> {} : onReconnect;
+    }
+
+    /**
+     * Set the consumer to be executed after a successful automatic reconnection.
+     * Can be used to report time to recovery.
+     *
+     * @param onReconnect the consumer to execute on reconnect
+     * @return this
+     */
+    @NotNull
+    public NeuroSDKBuilder setOnReconnect(@NotNull Consumer<Reconnection> onReconnect) {
+        this.onReconnect = onReconnect;
+        return this;
+    }
+
+    /**
+     * Get the consumer outbound frames are sent to instead of a websocket
+     *
+     * @return the frame sink. null if the SDK use a websocket
+     */
+    @ApiStatus.Internal
+    @Nullable
+    public Consumer<ByteBuffer> getFrameSink() {
+        return frameSink;
+    }
+
+    /**
+     * Send outbound frames to a consumer instead of a websocket.
+     * Used to benchmark or test the SDK without a socket.
+     * <p>
+     * If set, the SDK built do not connect to anything and is started immediately.
+     * Incoming messages can be provided with {@link NeuroSDK#receive}.
+     * The frame payload buffer is reused after the consumer returns, so it should be copied if it needs to be kept.
+     *
+     * @param frameSink the consumer of the encoded outbound frames. null to use a websocket
+     * @return this
+     */
+    @ApiStatus.Internal
+    @NotNull
+    public NeuroSDKBuilder setFrameSink(@Nullable Consumer<ByteBuffer> frameSink) {
+        this.frameSink = frameSink;
+        return this;
+    }
+
     /**
      * Create and open a Neuro sdk with the builder properties.
      * Will also try to connect to it in a non-blocking way:
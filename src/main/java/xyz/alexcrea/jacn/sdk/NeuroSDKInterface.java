@@ -6,6 +6,7 @@ import xyz.alexcrea.jacn.action.Action;
 import xyz.alexcrea.jacn.sdk.proposed.ProposedFeature;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represent a class that can interact with the Neuro SDK
@@ -112,6 +113,78 @@ public interface NeuroSDKInterface {
      */
     boolean unregisterActions(@NotNull Action... actions);
 
+    /**
+     * Register a list of actions, completing once the command is sent.
+     * <p>
+     * If registration batching is enabled, the actions are sent with the next batch
+     * and the future completes when that batch is flushed.
+     * Else, this is the same as {@link #registerActions(List)}.
+     * <p>
+     * Default implementation call {@link #registerActions(List)} and wrap its result.
+     *
+     * @param actions list of action to register
+     * @return a future completed with if the command was successful
+     */
+    @NotNull
+    default CompletableFuture<Boolean> registerActionsAsync(@NotNull List<Action> actions) {
+        return CompletableFuture.completedFuture(registerActions(actions));
+    }
+
+    /**
+     * Unregister a list of actions, completing once the command is sent.
+     * <p>
+     * If registration batching is enabled, the actions are sent with the next batch
+     * and the future completes when that batch is flushed.
+     * Else, this is the same as {@link #unregisterActions(List)}.
+     * <p>
+     * Default implementation call {@link #unregisterActions(List)} and wrap its result.
+     *
+     * @param actions list of action to unregister
+     * @return a future completed with if the command was successful
+     */
+    @NotNull
+    default CompletableFuture<Boolean> unregisterActionsAsync(@NotNull List<Action> actions) {
+        return CompletableFuture.completedFuture(unregisterActions(actions));
+    }
+
+    /**
+     * Make the registered actions match the provided actions.
+     * <p>
+     * Only the needed unregister and register commands are sent:
+     * actions that are already registered are not sent again,
+     * and registered actions that are not provided get unregistered.
+     * An action replacing a registered action of the same name with an identical name, description and schema
+     * is swapped locally without sending anything.
+     * <p>
+     * Default implementation unregister every registered action then register the provided actions,
+     * sending all of them again.
+     *
+     * @param actions the actions that should be registered
+     * @return if the commands were successful
+     */
+    default boolean syncActions(@NotNull List<Action> actions) {
+        boolean success = unregisterActions(getRegisteredActions());
+        return registerActions(actions) && success;
+    }
+
+    /**
+     * Make the registered actions match the provided actions.
+     * <p>
+     * Only the needed unregister and register commands are sent:
+     * actions that are already registered are not sent again,
+     * and registered actions that are not provided get unregistered.
+     * An action replacing a registered action of the same name with an identical name, description and schema
+     * is swapped locally without sending anything.
+     * <p>
+     * Default implementation call {@link #syncActions(List)}.
+     *
+     * @param actions the actions that should be registered
+     * @return if the commands were successful
+     */
+    default boolean syncActions(@NotNull Action... actions) {
+        return syncActions(List.of(actions));
+    }
+
     /**
      * This force Neuro to execute one of the following actions as soon as possible.
      * Note that this may take a bit if she is already talking.
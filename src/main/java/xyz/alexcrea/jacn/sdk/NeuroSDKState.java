@@ -21,5 +21,10 @@ public enum NeuroSDKState {
      * The websocket encountered an unrecoverable error. Actions can't be registered
      */
     ERROR,
+    /**
+     * The websocket connection was lost and the SDK is waiting to reconnect. Actions can't be registered
+     * (see {@link NeuroSDKBuilder#setReconnectPolicy})
+     */
+    RECONNECTING,
 
 }
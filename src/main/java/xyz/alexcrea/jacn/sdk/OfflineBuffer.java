@@ -0,0 +1,299 @@
+package xyz.alexcrea.jacn.sdk;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import xyz.alexcrea.jacn.action.Action;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keep context, register and unregister commands sent while the SDK is not connected,
+ * to replay them in one burst on startup.
+ * <p>
+ * Only the last register or unregister of an action is kept: an unregister followed by a register
+ * of a changed action replay the changed action.
+ * On replay, it is compared to the registered actions so only needed commands are sent.
+ * Context messages older than the maximum context age are dropped on replay.
+ * When full, the oldest context message is dropped to make space.
+ * If there is no context message to drop, the new command is dropped.
+ */
+@ApiStatus.Internal
+public class OfflineBuffer {
+
+    /**
+     * Result of an attempt to buffer a command
+     */
+    public enum Result {
+
+        /**
+         * The command was buffered
+         */
+        BUFFERED,
+        /**
+         * The buffer is full and the command was dropped
+         */
+        DROPPED,
+        /**
+         * The buffer was replayed in the meantime. the command should be sent normally
+         */
+        REPLAYED,
+
+    }
+
+    private final int capacity;
+    private final @Nullable Duration maxContextAge;
+
+    private final ArrayDeque<PendingContext> contexts;
+    // Action name -> last register or unregister command of this action
+    private final LinkedHashMap<String, PendingRegistration> registrations;
+
+    private boolean buffering;
+
+    private long droppedCount;
+    private long staleCount;
+    private long collapsedCount;
+
+    /**
+     * Create an offline buffer
+     *
+     * @param capacity      the maximum number of buffered commands
+     * @param maxContextAge the maximum age of a context message to be replayed. null for no limit
+     */
+    public OfflineBuffer(int capacity, @Nullable Duration maxContextAge) {
+        this.capacity = capacity;
+        this.maxContextAge = maxContextAge;
+
+        this.contexts = new ArrayDeque<>();
+        this.registrations = new LinkedHashMap<>();
+
+        this.buffering = true;
+    }
+
+    /**
+     * Buffer a context message
+     *
+     * @param message the context message
+     * @param silent  if the message is silent
+     * @return the result of buffering this message
+     */
+    @NotNull
+    public synchronized Result offerContext(@NotNull String message, boolean silent) {
+        if (!buffering) return Result.REPLAYED;
+
+        if (!makeSpace()) return Result.DROPPED;
+
+        contexts.addLast(new PendingContext(message, silent, System.nanoTime()));
+        return Result.BUFFERED;
+    }
+
+    /**
+     * Buffer the registration or unregistration of actions
+     *
+     * @param actions  the actions
+     * @param register true for a registration, false for an unregistration
+     * @return the result of buffering these actions. DROPPED if at least one action was dropped
+     */
+    @NotNull
+    public synchronized Result offerRegistration(@NotNull List<Action> actions, boolean register) {
+        if (!buffering) return Result.REPLAYED;
+
+        Result result = Result.BUFFERED;
+        for (Action action : actions) {
+            if (!putRegistration(action, register)) result = Result.DROPPED;
+        }
+        return result;
+    }
+
+    /**
+     * Buffer a synchronisation of the registered actions.
+     * <p>
+     * It replaces every buffered register and unregister command:
+     * on replay, the given actions are registered and every other registered or buffered action is unregistered.
+     *
+     * @param actions    the actions that should be registered
+     * @param registered the actions currently registered
+     * @return the result of buffering the synchronisation. DROPPED if at least one command was dropped
+     */
+    @NotNull
+    public synchronized Result offerSync(@NotNull Collection<Action> actions, @NotNull Collection<Action> registered) {
+        if (!buffering) return Result.REPLAYED;
+
+        Map<String, Action> desired = new LinkedHashMap<>();
+        for (Action action : actions) {
+            desired.put(action.getName(), action);
+        }
+
+        Map<String, Action> toUnregister = new LinkedHashMap<>();
+        for (Action action : registered) {
+            if (!desired.containsKey(action.getName())) toUnregister.put(action.getName(), action);
+        }
+        for (PendingRegistration registration : registrations.values()) {
+            String name = registration.action().getName();
+            if (registration.register() && !desired.containsKey(name)) toUnregister.putIfAbsent(name, registration.action());
+        }
+
+        collapsedCount += registrations.size();
+        registrations.clear();
+
+        Result result = Result.BUFFERED;
+        for (Action action : toUnregister.values()) {
+            if (!putRegistration(action, false)) result = Result.DROPPED;
+        }
+        for (Action action : desired.values()) {
+            if (!putRegistration(action, true)) result = Result.DROPPED;
+        }
+        return result;
+    }
+
+    // Need to hold the lock
+    private boolean putRegistration(@NotNull Action action, boolean register) {
+        // Only keep the last command of an action
+        PendingRegistration previous = registrations.remove(action.getName());
+        if (previous != null) {
+            collapsedCount++;
+        } else if (!makeSpace()) {
+            return false;
+        }
+
+        registrations.put(action.getName(), new PendingRegistration(action, register));
+        return true;
+    }
+
+    // Need to hold the lock
+    private boolean makeSpace() {
+        if (contexts.size() + registrations.size() < capacity) return true;
+
+        droppedCount++;
+        return contexts.pollFirst() != null;
+    }
+
+    /**
+     * Replay every buffered command then stop buffering.
+     *
+     * @param target     where to replay the commands
+     * @param onReplayed executed after the replay, before new commands stop being buffered
+     */
+    public synchronized void replay(@NotNull ReplayTarget target, @NotNull Runnable onReplayed) {
+        List<Action> toUnregister = new ArrayList<>();
+        List<Action> toRegister = new ArrayList<>();
+        for (PendingRegistration registration : registrations.values()) {
+            (registration.register() ? toRegister : toUnregister).add(registration.action());
+        }
+        registrations.clear();
+
+        if (!toRegister.isEmpty() || !toUnregister.isEmpty()) target.registration(toRegister, toUnregister);
+
+        long now = System.nanoTime();
+        PendingContext context;
+        while ((context = contexts.pollFirst()) != null) {
+            if (maxContextAge != null && now - context.time() > maxContextAge.toNanos()) {
+                staleCount++;
+                continue;
+            }
+
+            target.context(context.message(), context.silent());
+        }
+
+        onReplayed.run();
+        buffering = false;
+    }
+
+    /**
+     * Start buffering commands again. Should be called when the connection is lost.
+     */
+    public synchronized void reopen() {
+        buffering = true;
+    }
+
+    /**
+     * Drop every buffered command.
+     */
+    public synchronized void clear() {
+        contexts.clear();
+        registrations.clear();
+    }
+
+    /**
+     * Get the number of currently buffered commands
+     *
+     * @return the buffer occupancy
+     */
+    public synchronized int getOccupancy() {
+        return contexts.size() + registrations.size();
+    }
+
+    /**
+     * Get the maximum number of buffered commands
+     *
+     * @return the buffer capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of commands dropped because the buffer was full
+     *
+     * @return the dropped command count
+     */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Get the number of context messages dropped on replay because they were too old
+     *
+     * @return the stale context count
+     */
+    public synchronized long getStaleCount() {
+        return staleCount;
+    }
+
+    /**
+     * Get the number of register and unregister commands that were not replayed
+     * because a later command of the same action replaced them
+     *
+     * @return the collapsed command count
+     */
+    public synchronized long getCollapsedCount() {
+        return collapsedCount;
+    }
+
+    /**
+     * Where buffered commands are replayed
+     */
+    public interface ReplayTarget {
+
+        /**
+         * Register and unregister actions.
+         * Only the needed commands should be sent
+         *
+         * @param toRegister   the actions that should be registered
+         * @param toUnregister the actions that should not be registered
+         */
+        void registration(@NotNull List<Action> toRegister, @NotNull List<Action> toUnregister);
+
+        /**
+         * Send a context message
+         *
+         * @param message the context message
+         * @param silent  if the message is silent
+         */
+        void context(@NotNull String message, boolean silent);
+
+    }
+
+    private record PendingContext(@NotNull String message, boolean silent, long time) {
+    }
+
+    private record PendingRegistration(@NotNull Action action, boolean register) {
+    }
+
+}
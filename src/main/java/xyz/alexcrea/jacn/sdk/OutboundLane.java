@@ -0,0 +1,23 @@
+package xyz.alexcrea.jacn.sdk;
+
+/**
+ * Priority lanes of the outbound writer.
+ * A lane is only sent when every lane before it is empty.
+ */
+public enum OutboundLane {
+
+    /**
+     * Action results. Neuro is frozen until they are received, so they are always sent first
+     */
+    RESULT,
+    /**
+     * Startup, action registration, unregistration and force commands.
+     * They share a lane to keep their relative order
+     */
+    REGISTRATION,
+    /**
+     * Context messages
+     */
+    CONTEXT,
+
+}
@@ -0,0 +1,21 @@
+package xyz.alexcrea.jacn.sdk;
+
+/**
+ * What to do when a command is sent while its outbound lane is full
+ */
+public enum OutboundOverflowPolicy {
+
+    /**
+     * Wait until the lane has space for the command
+     */
+    BLOCK,
+    /**
+     * Drop the new command. The send method will return false
+     */
+    DROP_NEWEST,
+    /**
+     * Drop the oldest command of the lane to make space for the new one
+     */
+    DROP_OLDEST,
+
+}
@@ -0,0 +1,83 @@
+package xyz.alexcrea.jacn.sdk;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+
+/**
+ * Configuration of the outbound writer: capacity and overflow policy of every lane.
+ * <p>
+ * Default is a capacity of 1024 commands for every lane,
+ * blocking when result or registration lanes are full and dropping the oldest context when the context lane is full.
+ */
+@SuppressWarnings({"unused"})
+public class OutboundWriterConfig {
+
+    private final EnumMap<OutboundLane, Integer> capacities;
+    private final EnumMap<OutboundLane, OutboundOverflowPolicy> policies;
+
+    /**
+     * Create an outbound writer configuration with default values
+     */
+    public OutboundWriterConfig() {
+        this.capacities = new EnumMap<>(OutboundLane.class);
+        this.policies = new EnumMap<>(OutboundLane.class);
+
+        for (OutboundLane lane : OutboundLane.values()) {
+            capacities.put(lane, 1024);
+        }
+        policies.put(OutboundLane.RESULT, OutboundOverflowPolicy.BLOCK);
+        policies.put(OutboundLane.REGISTRATION, OutboundOverflowPolicy.BLOCK);
+        policies.put(OutboundLane.CONTEXT, OutboundOverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Set the maximum number of commands waiting in a lane
+     *
+     * @param lane     the lane
+     * @param capacity the lane capacity
+     * @return this
+     */
+    @NotNull
+    public OutboundWriterConfig setCapacity(@NotNull OutboundLane lane, int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity should be positive");
+
+        this.capacities.put(lane, capacity);
+        return this;
+    }
+
+    /**
+     * Get the maximum number of commands waiting in a lane
+     *
+     * @param lane the lane
+     * @return the lane capacity
+     */
+    public int getCapacity(@NotNull OutboundLane lane) {
+        return capacities.get(lane);
+    }
+
+    /**
+     * Set what to do when a command is sent while the lane is full
+     *
+     * @param lane   the lane
+     * @param policy the lane overflow policy
+     * @return this
+     */
+    @NotNull
+    public OutboundWriterConfig setOverflowPolicy(@NotNull OutboundLane lane, @NotNull OutboundOverflowPolicy policy) {
+        this.policies.put(lane, policy);
+        return this;
+    }
+
+    /**
+     * Get what to do when a command is sent while the lane is full
+     *
+     * @param lane the lane
+     * @return the lane overflow policy
+     */
+    @NotNull
+    public OutboundOverflowPolicy getOverflowPolicy(@NotNull OutboundLane lane) {
+        return policies.get(lane);
+    }
+
+}
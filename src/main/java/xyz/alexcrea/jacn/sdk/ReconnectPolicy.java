@@ -0,0 +1,210 @@
+package xyz.alexcrea.jacn.sdk;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Policy used to automatically reconnect to the websocket after the connection was lost.
+ * <p>
+ * The delay before each attempt grow exponentially from the initial delay up to the maximum delay,
+ * and is randomly reduced by up to the jitter ratio so many games do not reconnect at the same time.
+ * <p>
+ * Default is an initial delay of 1 second, a maximum delay of 30 seconds, a multiplier of 2,
+ * a jitter of 0.2 and no attempt or time limit.
+ */
+@SuppressWarnings({"unused"})
+public class ReconnectPolicy {
+
+    private @NotNull Duration initialDelay;
+    private @NotNull Duration maxDelay;
+    private double multiplier;
+    private double jitter;
+
+    private int maxAttempts;
+    private @Nullable Duration maxDuration;
+
+    /**
+     * Create a reconnect policy with default values
+     */
+    public ReconnectPolicy() {
+        this.initialDelay = Duration.ofSeconds(1);
+        this.maxDelay = Duration.ofSeconds(30);
+        this.multiplier = 2;
+        this.jitter = 0.2;
+
+        this.maxAttempts = 0;
+        this.maxDuration = null;
+    }
+
+    /**
+     * Set the delay before the first reconnect attempt
+     *
+     * @param initialDelay the initial delay
+     * @return this
+     */
+    @NotNull
+    public ReconnectPolicy setInitialDelay(@NotNull Duration initialDelay) {
+        if (initialDelay.isNegative()) throw new IllegalArgumentException("Initial delay should not be negative");
+
+        this.initialDelay = initialDelay;
+        return this;
+    }
+
+    /**
+     * Get the delay before the first reconnect attempt
+     *
+     * @return the initial delay
+     */
+    @NotNull
+    public Duration getInitialDelay() {
+        return initialDelay;
+    }
+
+    /**
+     * Set the maximum delay between two reconnect attempts
+     *
+     * @param maxDelay the maximum delay
+     * @return this
+     */
+    @NotNull
+    public ReconnectPolicy setMaxDelay(@NotNull Duration maxDelay) {
+        if (maxDelay.isNegative()) throw new IllegalArgumentException("Max delay should not be negative");
+
+        this.maxDelay = maxDelay;
+        return this;
+    }
+
+    /**
+     * Get the maximum delay between two reconnect attempts
+     *
+     * @return the maximum delay
+     */
+    @NotNull
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * Set the factor the delay is multiplied by after every failed attempt
+     *
+     * @param multiplier the delay multiplier. should be at least 1
+     * @return this
+     */
+    @NotNull
+    public ReconnectPolicy setMultiplier(double multiplier) {
+        if (multiplier < 1) throw new IllegalArgumentException("Multiplier should be at least 1");
+
+        this.multiplier = multiplier;
+        return this;
+    }
+
+    /**
+     * Get the factor the delay is multiplied by after every failed attempt
+     *
+     * @return the delay multiplier
+     */
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * Set the maximum ratio the delay can be randomly reduced by
+     *
+     * @param jitter the jitter ratio, between 0 and 1
+     * @return this
+     */
+    @NotNull
+    public ReconnectPolicy setJitter(double jitter) {
+        if (jitter < 0 || jitter > 1) throw new IllegalArgumentException("Jitter should be between 0 and 1");
+
+        this.jitter = jitter;
+        return this;
+    }
+
+    /**
+     * Get the maximum ratio the delay can be randomly reduced by
+     *
+     * @return the jitter ratio
+     */
+    public double getJitter() {
+        return jitter;
+    }
+
+    /**
+     * Set the maximum number of reconnect attempts before giving up
+     *
+     * @param maxAttempts the maximum number of attempts. 0 for no limit
+     * @return this
+     */
+    @NotNull
+    public ReconnectPolicy setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 0) throw new IllegalArgumentException("Max attempts should not be negative");
+
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Get the maximum number of reconnect attempts before giving up
+     *
+     * @return the maximum number of attempts. 0 if there is no limit
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Set the maximum time to try to reconnect before giving up, counted from the connection loss
+     *
+     * @param maxDuration the maximum reconnect duration. null for no limit
+     * @return this
+     */
+    @NotNull
+    public ReconnectPolicy setMaxDuration(@Nullable Duration maxDuration) {
+        this.maxDuration = maxDuration;
+        return this;
+    }
+
+    /**
+     * Get the maximum time to try to reconnect before giving up, counted from the connection loss
+     *
+     * @return the maximum reconnect duration. null if there is no limit
+     */
+    @Nullable
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    /**
+     * Get if another attempt is allowed
+     *
+     * @param attempt the attempt number, starting at 1
+     * @param elapsed the time elapsed since the connection was lost
+     * @return if this attempt is allowed
+     */
+    public boolean canAttempt(int attempt, @NotNull Duration elapsed) {
+        if (maxAttempts > 0 && attempt > maxAttempts) return false;
+        return maxDuration == null || elapsed.compareTo(maxDuration) < 0;
+    }
+
+    /**
+     * Compute the delay before an attempt
+     *
+     * @param attempt the attempt number, starting at 1
+     * @return the delay before this attempt
+     */
+    @NotNull
+    public Duration delayBefore(int attempt) {
+        double delay = initialDelay.toNanos() * Math.pow(multiplier, attempt - 1);
+        delay = Math.min(delay, maxDelay.toNanos());
+
+        if (jitter > 0) {
+            delay -= delay * jitter * ThreadLocalRandom.current().nextDouble();
+        }
+        return Duration.ofNanos((long) delay);
+    }
+
+}
@@ -0,0 +1,19 @@
+package xyz.alexcrea.jacn.sdk;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Information about a successful automatic reconnection.
+ *
+ * @param attempts       the number of attempts it took to reconnect
+ * @param timeToRecovery the time between the connection loss and the end of the new startup
+ * @param replayed       the number of actions registered again
+ */
+public record Reconnection(
+        int attempts,
+        @NotNull Duration timeToRecovery,
+        int replayed
+) {
+}
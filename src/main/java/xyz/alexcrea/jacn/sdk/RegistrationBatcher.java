@@ -0,0 +1,218 @@
+package xyz.alexcrea.jacn.sdk;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.alexcrea.jacn.action.Action;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collect register and unregister calls made in a short window into a single flush.
+ * <p>
+ * Only the last register or unregister of an action is kept.
+ * On flush, pending commands are compared to the registered actions and the payload sent for them,
+ * so an unregister then a register of the same action cancel each other out when the action did not change.
+ * If it changed (new options for example), it is unregistered and registered again with its new schema.
+ * At most one unregister and one register command are sent.
+ * Window flushes are sent from the {@link SharedScheduler#sender() sender executor}, not from the scheduler thread.
+ */
+@ApiStatus.Internal
+public class RegistrationBatcher {
+
+    private final static Logger logger = LoggerFactory.getLogger(RegistrationBatcher.class);
+
+    // Generation of a flush that is not bound to a window
+    private static final long ANY_WINDOW = -1;
+
+    private final @NotNull Duration window;
+    private final @NotNull RegistrationSender sender;
+
+    // Name -> last pending command of the action
+    private @NotNull Map<String, PendingRegistration> pending;
+    private @NotNull CompletableFuture<Boolean> pendingFlush;
+    private @Nullable ScheduledFuture<?> scheduledFlush;
+    // Incremented when a window is scheduled. only the flush of the current window can flush it
+    private long windowGeneration;
+
+    // Flushes are applied one at a time so the registry diff of a flush see the previous one
+    private final Object flushLock;
+
+    private long requestCount;
+    private long flushCount;
+
+    /**
+     * Create a registration batcher
+     *
+     * @param window the maximum time a register or unregister call can wait before being sent
+     * @param sender the function sending the registration changes
+     */
+    public RegistrationBatcher(@NotNull Duration window, @NotNull RegistrationSender sender) {
+        this.window = window;
+        this.sender = sender;
+
+        this.pending = new LinkedHashMap<>();
+        this.pendingFlush = new CompletableFuture<>();
+        this.flushLock = new Object();
+    }
+
+    /**
+     * Add actions to register or unregister on the next flush
+     *
+     * @param actions  the actions
+     * @param register true to register the actions, false to unregister them
+     * @return a future completed after the flush including these actions with if the commands were successful
+     */
+    @NotNull
+    public synchronized CompletableFuture<Boolean> add(@NotNull List<Action> actions, boolean register) {
+        requestCount++;
+        for (Action action : actions) {
+            pending.put(action.getName(), new PendingRegistration(action, register));
+        }
+
+        if (scheduledFlush == null) {
+            long generation = ++windowGeneration;
+            scheduledFlush = SharedScheduler.get().schedule(() -> windowElapsed(generation),
+                    window.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return pendingFlush;
+    }
+
+    /**
+     * Send every pending register and unregister.
+     *
+     * @return false if the pending commands could not be sent. true otherwise
+     */
+    public boolean flush() {
+        return flush(ANY_WINDOW);
+    }
+
+    private boolean flush(long generation) {
+        synchronized (flushLock) {
+            Map<String, PendingRegistration> toFlush;
+            CompletableFuture<Boolean> future;
+            synchronized (this) {
+                // The window was already flushed. a newer window may be pending and should not be flushed early
+                if (generation != ANY_WINDOW && (generation != windowGeneration || scheduledFlush == null)) {
+                    return true;
+                }
+
+                if (scheduledFlush != null) {
+                    scheduledFlush.cancel(false);
+                    scheduledFlush = null;
+                }
+                if (pending.isEmpty()) return true;
+
+                toFlush = pending;
+                future = pendingFlush;
+                pending = new LinkedHashMap<>();
+                pendingFlush = new CompletableFuture<>();
+                flushCount++;
+            }
+
+            List<Action> toRegister = new ArrayList<>();
+            List<Action> toUnregister = new ArrayList<>();
+            for (PendingRegistration registration : toFlush.values()) {
+                (registration.register() ? toRegister : toUnregister).add(registration.action());
+            }
+
+            boolean sent;
+            try {
+                sent = sender.send(toRegister, toUnregister);
+            } catch (Exception e) {
+                logger.error("Exception thrown while sending batched registration", e);
+                future.completeExceptionally(e);
+                return false;
+            }
+
+            if (!sent) {
+                logger.error("Could not send batched registration of {} actions", toFlush.size());
+            }
+            future.complete(sent);
+            return sent;
+        }
+    }
+
+    // Run on the scheduler thread: do not send from it
+    private void windowElapsed(long generation) {
+        try {
+            SharedScheduler.sender().execute(() -> flush(generation));
+        } catch (RejectedExecutionException e) {
+            logger.error("Could not schedule the flush of batched registrations", e);
+        }
+    }
+
+    /**
+     * Drop every pending command without sending them.
+     * Futures of dropped commands complete with false.
+     */
+    public synchronized void clear() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        pending.clear();
+
+        pendingFlush.complete(false);
+        pendingFlush = new CompletableFuture<>();
+    }
+
+    /**
+     * Get the number of actions currently waiting to be registered or unregistered
+     *
+     * @return the pending action count
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Get the total number of register and unregister calls added to this batcher
+     *
+     * @return the total call count
+     */
+    public synchronized long getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Get the total number of flush sent by this batcher
+     *
+     * @return the total flush count
+     */
+    public synchronized long getFlushCount() {
+        return flushCount;
+    }
+
+    private record PendingRegistration(@NotNull Action action, boolean register) {
+    }
+
+    /**
+     * Send registration changes to Neuro
+     */
+    @FunctionalInterface
+    public interface RegistrationSender {
+
+        /**
+         * Register and unregister actions.
+         * Only the needed commands should be sent
+         *
+         * @param toRegister   the actions that should be registered
+         * @param toUnregister the actions that should not be registered
+         * @return if the commands were sent
+         */
+        boolean send(@NotNull List<Action> toRegister, @NotNull List<Action> toUnregister);
+
+    }
+
+}
@@ -0,0 +1,90 @@
+package xyz.alexcrea.jacn.sdk;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single scheduler thread shared by every SDK instance for its timers
+ * (action request deadlines, flush windows...).
+ * <p>
+ * Scheduled tasks should be short. The thread is only created when first used.
+ * Timers that need to send to the websocket should hand the send to the {@link #sender() sender executor},
+ * so a slow socket does not delay the other timers.
+ */
+@ApiStatus.Internal
+public final class SharedScheduler {
+
+    private SharedScheduler() {
+    }
+
+    /**
+     * Get the shared scheduler
+     *
+     * @return the shared scheduler
+     */
+    @NotNull
+    public static ScheduledExecutorService get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Get the executor shared by every SDK instance to send commands triggered by a timer.
+     * Its threads are created when needed and stop after being idle.
+     * <p>
+     * It uses at most as many threads as there are processors (2 minimum).
+     * Its queue is not bounded, but a context coalescer or registration batcher only schedules its next window
+     * once the previous one started flushing.
+     * So queued sends stay bounded by the number of SDK instances, even if the socket is slow.
+     *
+     * @return the shared sender executor
+     */
+    @NotNull
+    public static ExecutorService sender() {
+        return SenderHolder.INSTANCE;
+    }
+
+    private static final class Holder {
+
+        private static final ScheduledThreadPoolExecutor INSTANCE = createScheduler();
+
+        private static ScheduledThreadPoolExecutor createScheduler() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "jacn-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+
+    private static final class SenderHolder {
+
+        private static final int MAX_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        private static final ThreadPoolExecutor INSTANCE = createSender();
+
+        private static ThreadPoolExecutor createSender() {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor sender = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "jacn-sender-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            // Threads are still created when needed and stop after being idle
+            sender.allowCoreThreadTimeOut(true);
+            return sender;
+        }
+    }
+
+}
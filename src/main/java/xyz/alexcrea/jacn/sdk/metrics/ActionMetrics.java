@@ -0,0 +1,164 @@
+package xyz.alexcrea.jacn.sdk.metrics;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outcome counters and phase latencies of the requests of a single action name.
+ * <p>
+ * Recording is lock-free and does not allocate. Use {@link #snapshot()} to read the metrics.
+ */
+@SuppressWarnings({"unused"})
+public class ActionMetrics {
+
+    private final @NotNull String name;
+
+    private final @NotNull AtomicLong received;
+    private final @NotNull AtomicLong validationFailures;
+    private final @NotNull AtomicLong handlerFailures;
+    private final @NotNull AtomicLong nullResults;
+    private final @NotNull AtomicLong timeouts;
+
+    private final @NotNull LatencyHistogram parse;
+    private final @NotNull LatencyHistogram validate;
+    private final @NotNull LatencyHistogram handle;
+    private final @NotNull LatencyHistogram send;
+
+    ActionMetrics(@NotNull String name) {
+        this.name = name;
+
+        this.received = new AtomicLong();
+        this.validationFailures = new AtomicLong();
+        this.handlerFailures = new AtomicLong();
+        this.nullResults = new AtomicLong();
+        this.timeouts = new AtomicLong();
+
+        this.parse = new LatencyHistogram();
+        this.validate = new LatencyHistogram();
+        this.handle = new LatencyHistogram();
+        this.send = new LatencyHistogram();
+    }
+
+    /**
+     * Get the action name of these metrics
+     *
+     * @return the action name
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    @ApiStatus.Internal
+    public void recordReceived() {
+        received.incrementAndGet();
+    }
+
+    @ApiStatus.Internal
+    public void recordValidationFailure() {
+        validationFailures.incrementAndGet();
+    }
+
+    @ApiStatus.Internal
+    public void recordHandlerFailure() {
+        handlerFailures.incrementAndGet();
+    }
+
+    @ApiStatus.Internal
+    public void recordNullResult() {
+        nullResults.incrementAndGet();
+    }
+
+    @ApiStatus.Internal
+    public void recordTimeout() {
+        timeouts.incrementAndGet();
+    }
+
+    @ApiStatus.Internal
+    public void recordParse(long nanos) {
+        parse.record(nanos);
+    }
+
+    @ApiStatus.Internal
+    public void recordValidate(long nanos) {
+        validate.record(nanos);
+    }
+
+    @ApiStatus.Internal
+    public void recordHandle(long nanos) {
+        handle.record(nanos);
+    }
+
+    @ApiStatus.Internal
+    public void recordSend(long nanos) {
+        send.record(nanos);
+    }
+
+    /**
+     * Get a copy of the current metrics of this action
+     *
+     * @return a snapshot of the metrics
+     */
+    @NotNull
+    public Snapshot snapshot() {
+        return new Snapshot(name,
+                received.get(), validationFailures.get(),
+                handlerFailures.get(), nullResults.get(), timeouts.get(),
+                parse.snapshot(), validate.snapshot(), handle.snapshot(), send.snapshot());
+    }
+
+    /**
+     * Metrics of an action at a point in time
+     *
+     * @param name               the action name
+     * @param received           the number of requests received for this action while it was registered
+     * @param validationFailures the number of requests rejected because their data was missing, malformed,
+     *                           not valid against the action schema or could not be bound to the payload type
+     * @param handlerFailures    the number of requests where the callback or a listener threw an exception,
+     *                           or the action executor rejected the request
+     * @param nullResults        the number of requests where the callback and every listener returned null
+     * @param timeouts           the number of requests that timed out before their result was available
+     * @param parse              time spent parsing the request and binding its data
+     * @param validate           time spent validating the request data against the action schema
+     * @param handle             time between the start of the request execution and its result being available
+     * @param send               time spent sending the request result
+     */
+    public record Snapshot(
+            @NotNull String name,
+            long received,
+            long validationFailures,
+            long handlerFailures,
+            long nullResults,
+            long timeouts,
+            @NotNull HistogramSnapshot parse,
+            @NotNull HistogramSnapshot validate,
+            @NotNull HistogramSnapshot handle,
+            @NotNull HistogramSnapshot send
+    ) {
+
+        /**
+         * Create a snapshot containing the metrics of this snapshot and another
+         *
+         * @param name  the name of the merged snapshot
+         * @param other the other snapshot
+         * @return the merged snapshot
+         */
+        @NotNull
+        public Snapshot merge(@NotNull String name, @NotNull Snapshot other) {
+            return new Snapshot(name,
+                    received + other.received,
+                    validationFailures + other.validationFailures,
+                    handlerFailures + other.handlerFailures,
+                    nullResults + other.nullResults,
+                    timeouts + other.timeouts,
+                    parse.merge(other.parse),
+                    validate.merge(other.validate),
+                    handle.merge(other.handle),
+                    send.merge(other.send));
+        }
+
+    }
+
+}
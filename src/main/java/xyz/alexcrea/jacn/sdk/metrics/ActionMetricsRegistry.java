@@ -0,0 +1,111 @@
+package xyz.alexcrea.jacn.sdk.metrics;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of every action that received a request, by action name.
+ * <p>
+ * Metrics of an action are created on its first request, so actions never requested by Neuro do not use memory.
+ * Requests for actions that are not registered are only counted in {@link #getUnknownActionCount()},
+ * so unexpected action names can not grow the registry.
+ */
+@SuppressWarnings({"unused"})
+public class ActionMetricsRegistry {
+
+    private final @NotNull ConcurrentHashMap<String, ActionMetrics> metrics;
+    private final @NotNull LongAdder unknownActions;
+
+    public ActionMetricsRegistry() {
+        this.metrics = new ConcurrentHashMap<>();
+        this.unknownActions = new LongAdder();
+    }
+
+    /**
+     * Get the metrics of an action, creating them if needed.
+     * Should only be called for registered actions.
+     *
+     * @param name the action name
+     * @return the metrics of the action
+     */
+    @ApiStatus.Internal
+    @NotNull
+    public ActionMetrics forAction(@NotNull String name) {
+        // Lookup first: computeIfAbsent may lock the bin even when the key is present
+        ActionMetrics actionMetrics = metrics.get(name);
+        if (actionMetrics != null) return actionMetrics;
+
+        return metrics.computeIfAbsent(name, ActionMetrics::new);
+    }
+
+    @ApiStatus.Internal
+    public void recordUnknown() {
+        unknownActions.increment();
+    }
+
+    /**
+     * Get the number of requests received for actions that were not registered
+     *
+     * @return the unknown action request count
+     */
+    public long getUnknownActionCount() {
+        return unknownActions.sum();
+    }
+
+    /**
+     * Get the metrics of an action
+     *
+     * @param name the action name
+     * @return the metrics of the action. null if the action never received a request
+     */
+    @Nullable
+    public ActionMetrics get(@NotNull String name) {
+        return metrics.get(name);
+    }
+
+    /**
+     * Get a copy of the current metrics of every action
+     *
+     * @return action name to the snapshot of its metrics
+     */
+    @NotNull
+    public Map<String, ActionMetrics.Snapshot> snapshot() {
+        Map<String, ActionMetrics.Snapshot> snapshots = new LinkedHashMap<>();
+        for (ActionMetrics actionMetrics : metrics.values()) {
+            snapshots.put(actionMetrics.getName(), actionMetrics.snapshot());
+        }
+        return snapshots;
+    }
+
+    /**
+     * Get a copy of the current metrics of every action, merged together
+     *
+     * @return a snapshot named "total" of the merged metrics
+     */
+    @NotNull
+    public ActionMetrics.Snapshot total() {
+        HistogramSnapshot empty = HistogramSnapshot.empty();
+        ActionMetrics.Snapshot total = new ActionMetrics.Snapshot("total",
+                0, 0, 0, 0, 0, empty, empty, empty, empty);
+
+        for (ActionMetrics actionMetrics : metrics.values()) {
+            total = total.merge("total", actionMetrics.snapshot());
+        }
+        return total;
+    }
+
+    /**
+     * Remove the metrics of every action and reset the unknown action count
+     */
+    public void clear() {
+        metrics.clear();
+        unknownActions.reset();
+    }
+
+}
@@ -0,0 +1,110 @@
+package xyz.alexcrea.jacn.sdk.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An immutable copy of the values recorded by a {@link LatencyHistogram}.
+ * Every value is in nanoseconds.
+ */
+@SuppressWarnings({"unused"})
+public final class HistogramSnapshot {
+
+    private final long @NotNull [] counts;
+    private final long count;
+    private final long total;
+    private final long max;
+
+    HistogramSnapshot(long @NotNull [] counts, long count, long total, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.total = total;
+        this.max = max;
+    }
+
+    /**
+     * Get the number of recorded values
+     *
+     * @return the recorded value count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the mean of the recorded values
+     *
+     * @return the mean. 0 if nothing was recorded
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * Get the maximum recorded value
+     *
+     * @return the maximum. 0 if nothing was recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Get the value at a percentile
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value. 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile should be between 0 and 100");
+        }
+        if (count == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen < target) continue;
+
+            // The last bucket has no upper bound
+            return i == counts.length - 1 ? max : Math.min(LatencyHistogram.valueOf(i), max);
+        }
+        return max;
+    }
+
+    /**
+     * Create a snapshot containing the values of this snapshot and another
+     *
+     * @param other the other snapshot
+     * @return the merged snapshot
+     */
+    @NotNull
+    public HistogramSnapshot merge(@NotNull HistogramSnapshot other) {
+        long[] merged = new long[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            merged[i] = counts[i] + other.counts[i];
+        }
+
+        return new HistogramSnapshot(merged, count + other.count, total + other.total, Math.max(max, other.max));
+    }
+
+    /**
+     * Get a snapshot without any value
+     *
+     * @return an empty snapshot
+     */
+    @NotNull
+    public static HistogramSnapshot empty() {
+        return new HistogramSnapshot(new long[LatencyHistogram.BUCKET_COUNT], 0, 0, 0);
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramSnapshot{count=" + count +
+                ", mean=" + getMean() +
+                ", p50=" + getValueAtPercentile(50) +
+                ", p99=" + getValueAtPercentile(99) +
+                ", max=" + max + "}";
+    }
+
+}
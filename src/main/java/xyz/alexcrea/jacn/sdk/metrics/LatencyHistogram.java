@@ -0,0 +1,116 @@
+package xyz.alexcrea.jacn.sdk.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A concurrent latency histogram with logarithmic buckets.
+ * <p>
+ * Each power of two is split in {@value #SUB_BUCKETS} linear buckets, so reported values are within about 6% of the
+ * recorded values. Values above 2^{@value #MAX_EXPONENT} nanoseconds (about 36 minutes) share the last bucket.
+ * Recording is lock-free and does not allocate. Use {@link #snapshot()} to read the recorded values.
+ */
+@SuppressWarnings({"unused"})
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 41;
+    static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_EXPONENT - SUB_BITS) * SUB_BUCKETS;
+
+    private final @NotNull AtomicLongArray buckets;
+    private final @NotNull AtomicLong count;
+    private final @NotNull AtomicLong total;
+    private final @NotNull AtomicLong max;
+
+    public LatencyHistogram() {
+        this.buckets = new AtomicLongArray(BUCKET_COUNT);
+        this.count = new AtomicLong();
+        this.total = new AtomicLong();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Record a latency
+     *
+     * @param nanos the latency in nanoseconds. negative values are recorded as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Add every value recorded by another histogram to this histogram
+     *
+     * @param other the other histogram
+     */
+    public void add(@NotNull LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucket = other.buckets.get(i);
+            if (bucket != 0) buckets.addAndGet(i, bucket);
+        }
+        count.addAndGet(other.count.get());
+        total.addAndGet(other.total.get());
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    /**
+     * Get the number of recorded values
+     *
+     * @return the recorded value count
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Get a copy of the recorded values.
+     * <p>
+     * Values recorded while the snapshot is taken may or may not be part of it.
+     *
+     * @return a snapshot of this histogram
+     */
+    @NotNull
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long snapshotCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            snapshotCount += counts[i];
+        }
+
+        return new HistogramSnapshot(counts, snapshotCount, total.get(), max.get());
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_EXPONENT) return BUCKET_COUNT - 1;
+
+        int subBucket = (int) (value >>> (exponent - SUB_BITS)) - SUB_BUCKETS;
+        return SUB_BUCKETS + (exponent - SUB_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Get the highest value of a bucket
+     */
+    static long valueOf(int index) {
+        if (index < SUB_BUCKETS) return index;
+
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+
+}
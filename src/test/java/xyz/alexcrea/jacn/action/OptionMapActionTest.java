@@ -0,0 +1,62 @@
+package xyz.alexcrea.jacn.action;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.networknt.schema.ValidationMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptionMapActionTest {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static OptionMapAction<Integer> createAction() {
+        Map<String, Integer> options = new LinkedHashMap<>();
+        options.put("left", 1);
+        options.put("right", 2);
+        return new OptionMapAction<>("move", "Move left or right", options, null);
+    }
+
+    private static JsonNode option(String option) {
+        return mapper.createObjectNode().put("options", option);
+    }
+
+    @Test
+    void acceptsKnownOption() {
+        OptionMapAction<Integer> action = createAction();
+
+        assertIterableEquals(List.of(), action.validate(option("left")));
+    }
+
+    @Test
+    void rejectsOptionsAfterClear() {
+        OptionMapAction<Integer> action = createAction();
+        action.clearOptions();
+
+        assertEquals(1, action.validate(option("left")).size());
+        assertNull(action.get("left"));
+        assertEquals(0, action.size());
+    }
+
+    @Test
+    void validationFollowsOptionChanges() {
+        OptionMapAction<Integer> action = createAction();
+        action.removeOption("left");
+        action.setOption("up", 3);
+
+        assertEquals(1, action.validate(option("left")).size());
+        assertIterableEquals(List.of(), action.validate(option("up")));
+
+        // The fast path should report the same message as the json schema validator
+        List<String> expected = action.getSchema().validate(option("left")).stream()
+                .map(ValidationMessage::getMessage)
+                .toList();
+        assertIterableEquals(expected, action.validate(option("left")));
+    }
+
+}
@@ -0,0 +1,54 @@
+package xyz.alexcrea.jacn.action.validation;
+
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaCacheTest {
+
+    private static final JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V202012);
+
+    @Test
+    void rawSchemasAreKeyedByContent() {
+        SchemaCache cache = new SchemaCache(factory, 4);
+
+        SchemaCache.CompiledSchema first = cache.get("{\"type\":\"string\"}");
+        SchemaCache.CompiledSchema second = cache.get("{ \"type\" : \"string\" }");
+
+        assertSame(first, second);
+        assertEquals(1, cache.getSize());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void leastRecentlyUsedSchemaIsEvicted() {
+        SchemaCache cache = new SchemaCache(factory, 2);
+
+        SchemaCache.CompiledSchema string = cache.get("{\"type\":\"string\"}");
+        cache.get("{\"type\":\"integer\"}");
+        cache.get("{\"type\":\"string\"}");
+        cache.get("{\"type\":\"boolean\"}");
+
+        assertEquals(2, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+        assertSame(string, cache.get("{\"type\":\"string\"}"));
+    }
+
+    @Test
+    void invalidRawSchemaIsRejected() {
+        SchemaCache cache = new SchemaCache(factory, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get("{\"type\":"));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void maxEntriesShouldBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new SchemaCache(factory, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SchemaCache(factory, 2).setMaxEntries(-1));
+    }
+
+}
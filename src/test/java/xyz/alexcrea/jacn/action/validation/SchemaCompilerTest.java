@@ -0,0 +1,142 @@
+package xyz.alexcrea.jacn.action.validation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion;
+import com.networknt.schema.ValidationMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Check compiled validators report the same errors as the json schema validator
+ */
+class SchemaCompilerTest {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V202012);
+
+    private static JsonNode json(String json) {
+        try {
+            return mapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Validate every payload with both validators and compare the messages
+     */
+    private static void assertAgree(String schema, String... payloads) {
+        JsonNode schemaNode = json(schema);
+        SchemaValidator compiled = SchemaCompiler.compile(schemaNode);
+        assertNotNull(compiled, "Schema should be compiled: " + schema);
+
+        JsonSchema reference = factory.getSchema(schemaNode);
+        for (String payload : payloads) {
+            JsonNode node = json(payload);
+
+            List<String> expected = new ArrayList<>();
+            for (ValidationMessage message : reference.validate(node)) {
+                expected.add(message.getMessage());
+            }
+
+            List<String> actual = new ArrayList<>();
+            compiled.validate(node, SchemaCompiler.ROOT_PATH, actual);
+
+            // Both report errors in keyword order, but only the error set matter to Neuro
+            expected.sort(null);
+            actual.sort(null);
+            assertIterableEquals(expected, actual, "Schema " + schema + " with payload " + payload);
+        }
+    }
+
+    @Test
+    void type() {
+        String[] payloads = {"{}", "[]", "\"text\"", "1", "1.0", "1.5", "true", "null"};
+        for (String type : List.of("object", "array", "string", "integer", "number", "boolean", "null")) {
+            assertAgree("{\"type\":\"" + type + "\"}", payloads);
+        }
+    }
+
+    @Test
+    void enumeration() {
+        assertAgree("{\"enum\":[\"a\",\"b\"]}", "\"a\"", "\"c\"", "1", "null");
+        assertAgree("{\"enum\":[1,\"a\",null,true]}", "1", "1.0", "2", "\"a\"", "null", "true", "false");
+    }
+
+    @Test
+    void required() {
+        assertAgree("{\"type\":\"object\",\"required\":[\"a\",\"b\"]}", "{}", "{\"a\":1}", "{\"a\":1,\"b\":null}", "[]");
+    }
+
+    @Test
+    void properties() {
+        String schema = "{\"type\":\"object\",\"properties\":{" +
+                "\"name\":{\"type\":\"string\"}," +
+                "\"odd-name\":{\"type\":\"integer\"}," +
+                "\"nested\":{\"type\":\"object\",\"properties\":{\"value\":{\"type\":\"boolean\"}},\"required\":[\"value\"]}" +
+                "},\"required\":[\"name\"]}";
+
+        assertAgree(schema,
+                "{\"name\":\"a\"}",
+                "{\"name\":1}",
+                "{\"name\":\"a\",\"odd-name\":\"b\"}",
+                "{\"name\":\"a\",\"nested\":{}}",
+                "{\"name\":\"a\",\"nested\":{\"value\":1}}",
+                "{\"other\":1}",
+                "\"not an object\"");
+    }
+
+    @Test
+    void items() {
+        assertAgree("{\"type\":\"array\",\"items\":{\"type\":\"integer\",\"minimum\":0}}",
+                "[]", "[1,2]", "[1,-1,\"a\"]", "{}");
+        assertAgree("{\"type\":\"array\",\"items\":{\"type\":\"object\",\"required\":[\"id\"]}}",
+                "[{\"id\":1},{}]");
+    }
+
+    @Test
+    void range() {
+        assertAgree("{\"type\":\"number\",\"minimum\":1,\"maximum\":10}", "0", "1", "5.5", "10", "10.5", "\"a\"");
+        assertAgree("{\"type\":\"number\",\"exclusiveMinimum\":1,\"exclusiveMaximum\":10}", "1", "1.5", "10", "11");
+        assertAgree("{\"type\":\"number\",\"minimum\":0.5}", "0.25", "0.5");
+    }
+
+    @Test
+    void length() {
+        assertAgree("{\"type\":\"string\",\"minLength\":2,\"maxLength\":4}",
+                "\"a\"", "\"ab\"", "\"abcd\"", "\"abcde\"", "\"\uD83D\uDE00\uD83D\uDE00\"", "1");
+    }
+
+    @Test
+    void itemCount() {
+        assertAgree("{\"type\":\"array\",\"minItems\":1,\"maxItems\":2}", "[]", "[1]", "[1,2]", "[1,2,3]", "\"a\"");
+    }
+
+    @Test
+    void annotationsAreIgnored() {
+        assertAgree("{\"$schema\":\"https://json-schema.org/draft/2020-12/schema\",\"title\":\"Title\"," +
+                "\"description\":\"Description\",\"type\":\"string\"}", "\"a\"", "1");
+    }
+
+    @Test
+    void booleanSchema() {
+        assertAgree("true", "1", "{}");
+    }
+
+    @Test
+    void unsupportedKeywordsAreNotCompiled() {
+        assertNull(SchemaCompiler.compile(json("{\"type\":\"string\",\"pattern\":\"^a\"}")));
+        assertNull(SchemaCompiler.compile(json("{\"type\":[\"string\",\"null\"]}")));
+        assertNull(SchemaCompiler.compile(json("{\"anyOf\":[{\"type\":\"string\"}]}")));
+        assertNull(SchemaCompiler.compile(json("{\"type\":\"object\",\"properties\":{\"a\":{\"$ref\":\"#/$defs/a\"}}}")));
+    }
+
+}
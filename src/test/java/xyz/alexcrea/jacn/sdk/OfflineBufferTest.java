@@ -0,0 +1,103 @@
+package xyz.alexcrea.jacn.sdk;
+
+import org.junit.jupiter.api.Test;
+import xyz.alexcrea.jacn.action.Action;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfflineBufferTest {
+
+    @Test
+    void changedActionIsNotDroppedByPreviousUnregister() {
+        OfflineBuffer buffer = new OfflineBuffer(10, null);
+        Action previous = new Action("move", "Move somewhere");
+        Action changed = new Action("move", "Move somewhere else")
+                .setSchemaRaw("{\"type\":\"object\",\"properties\":{\"x\":{\"type\":\"integer\"}}}");
+
+        buffer.offerRegistration(List.of(previous), false);
+        buffer.offerRegistration(List.of(changed), true);
+
+        RecordingTarget target = new RecordingTarget();
+        buffer.replay(target, () -> {
+        });
+
+        assertIterableEquals(List.of(changed), target.registered);
+        assertIterableEquals(List.of(), target.unregistered);
+        assertEquals(1, buffer.getCollapsedCount());
+    }
+
+    @Test
+    void onlyLastCommandOfAnActionIsReplayed() {
+        OfflineBuffer buffer = new OfflineBuffer(10, null);
+        Action action = new Action("jump", "Jump");
+
+        buffer.offerRegistration(List.of(action), true);
+        buffer.offerRegistration(List.of(action), false);
+
+        RecordingTarget target = new RecordingTarget();
+        buffer.replay(target, () -> {
+        });
+
+        assertIterableEquals(List.of(), target.registered);
+        assertIterableEquals(List.of(action), target.unregistered);
+        assertEquals(0, buffer.getOccupancy());
+    }
+
+    @Test
+    void syncReplacesBufferedRegistrations() {
+        OfflineBuffer buffer = new OfflineBuffer(10, null);
+        Action registered = new Action("registered", "Registered before going offline");
+        Action buffered = new Action("buffered", "Registered while offline");
+        Action synced = new Action("synced", "Only action after the sync");
+
+        buffer.offerRegistration(List.of(buffered), true);
+        assertEquals(OfflineBuffer.Result.BUFFERED, buffer.offerSync(List.of(synced), List.of(registered)));
+
+        RecordingTarget target = new RecordingTarget();
+        buffer.replay(target, () -> {
+        });
+
+        assertIterableEquals(List.of(synced), target.registered);
+        assertIterableEquals(List.of(registered, buffered), target.unregistered);
+    }
+
+    @Test
+    void oldestContextIsDroppedWhenFull() {
+        OfflineBuffer buffer = new OfflineBuffer(2, null);
+
+        assertEquals(OfflineBuffer.Result.BUFFERED, buffer.offerContext("first", true));
+        assertEquals(OfflineBuffer.Result.BUFFERED, buffer.offerContext("second", true));
+        assertEquals(OfflineBuffer.Result.BUFFERED, buffer.offerContext("third", true));
+
+        RecordingTarget target = new RecordingTarget();
+        buffer.replay(target, () -> {
+        });
+
+        assertIterableEquals(List.of("second", "third"), target.contexts);
+        assertEquals(1, buffer.getDroppedCount());
+        assertEquals(OfflineBuffer.Result.REPLAYED, buffer.offerContext("after", true));
+    }
+
+    private static class RecordingTarget implements OfflineBuffer.ReplayTarget {
+
+        private final List<Action> registered = new ArrayList<>();
+        private final List<Action> unregistered = new ArrayList<>();
+        private final List<String> contexts = new ArrayList<>();
+
+        @Override
+        public void registration(List<Action> toRegister, List<Action> toUnregister) {
+            registered.addAll(toRegister);
+            unregistered.addAll(toUnregister);
+        }
+
+        @Override
+        public void context(String message, boolean silent) {
+            contexts.add(message);
+        }
+
+    }
+
+}
@@ -0,0 +1,87 @@
+package xyz.alexcrea.jacn.sdk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import xyz.alexcrea.jacn.action.OptionMapAction;
+import xyz.alexcrea.jacn.testkit.GameSession;
+import xyz.alexcrea.jacn.testkit.NeuroTestServer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfflineReplayTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String GAME_NAME = "Offline test";
+
+    private NeuroTestServer server;
+    private NeuroSDK sdk;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new NeuroTestServer();
+        server.startAndWait(TIMEOUT);
+    }
+
+    @AfterEach
+    void stopServer() {
+        if (sdk != null) sdk.close();
+        server.close();
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void changedInstanceReRegisteredOfflineIsSentOnReconnect() throws Exception {
+        OptionMapAction<Integer> action = new OptionMapAction<>("move", "Move left or right",
+                Map.of("left", -1, "right", 1), null);
+
+        // Leave enough time to change the registration before the reconnection
+        ReconnectPolicy policy = new ReconnectPolicy()
+                .setInitialDelay(Duration.ofMillis(500))
+                .setJitter(0);
+        sdk = server.configure(new NeuroSDKBuilder(GAME_NAME))
+                .setReconnectPolicy(policy)
+                .setOfflineBuffer(16, null)
+                .addActionsOnConnect(action)
+                .build();
+
+        GameSession session = server.awaitSession(GAME_NAME, TIMEOUT);
+        assertEquals(2, optionCount(session.awaitRegistered("move", TIMEOUT)));
+
+        session.disconnect();
+        await(() -> sdk.getState() == NeuroSDKState.RECONNECTING);
+        await(() -> server.getSessions().isEmpty());
+
+        // Same instance, changed while offline
+        assertTrue(sdk.unregisterActions(action));
+        action.setOption("stay", 0);
+        assertTrue(sdk.registerActions(action));
+
+        GameSession reconnected = server.awaitSession(GAME_NAME, TIMEOUT);
+        assertNotSame(session, reconnected);
+        assertEquals(3, optionCount(reconnected.awaitRegistered("move", TIMEOUT)));
+        await(() -> sdk.getState() == NeuroSDKState.CONNECTED);
+        assertTrue(sdk.getRegisteredActions().contains(action));
+    }
+
+    private static int optionCount(JsonNode registered) {
+        assertNotNull(registered);
+        return registered.path("schema").path("properties").path("options").path("enum").size();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("Condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package xyz.alexcrea.jacn.sdk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import xyz.alexcrea.jacn.action.OptionMapAction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyncActionsTest {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final List<JsonNode> frames = new CopyOnWriteArrayList<>();
+    private NeuroSDK sdk;
+
+    @AfterEach
+    void tearDown() {
+        if (sdk != null) sdk.close();
+    }
+
+    @Test
+    void changedInstanceIsSentAgain() {
+        sdk = createSDK();
+        OptionMapAction<Integer> action = new OptionMapAction<>("move", "Move left or right",
+                Map.of("left", -1, "right", 1), null);
+
+        assertTrue(sdk.registerActions(action));
+        action.setOption("stay", 0);
+        frames.clear();
+
+        assertTrue(sdk.syncActions(action));
+
+        List<JsonNode> unregisters = commands("actions/unregister");
+        List<JsonNode> registers = commands("actions/register");
+        assertEquals(1, unregisters.size());
+        assertEquals(1, registers.size());
+
+        JsonNode registered = registers.get(0).path("data").path("actions").get(0);
+        assertEquals("move", registered.path("name").asText());
+        JsonNode options = registered.path("schema").path("properties").path("options").path("enum");
+        assertEquals(3, options.size());
+    }
+
+    @Test
+    void unchangedInstanceIsNotSentAgain() {
+        sdk = createSDK();
+        OptionMapAction<Integer> action = new OptionMapAction<>("move", "Move left or right",
+                Map.of("left", -1, "right", 1), null);
+
+        assertTrue(sdk.registerActions(action));
+        frames.clear();
+
+        assertTrue(sdk.syncActions(action));
+
+        assertEquals(List.of(), frames);
+    }
+
+    private NeuroSDK createSDK() {
+        return new NeuroSDKBuilder("Sync test")
+                .setFrameSink(this::record)
+                .build();
+    }
+
+    private void record(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.duplicate().get(bytes);
+        try {
+            frames.add(mapper.readTree(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<JsonNode> commands(String command) {
+        return frames.stream()
+                .filter(frame -> command.equals(frame.path("command").asText()))
+                .toList();
+    }
+
+}
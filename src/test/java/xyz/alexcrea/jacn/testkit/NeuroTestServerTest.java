@@ -0,0 +1,107 @@
+package xyz.alexcrea.jacn.testkit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import xyz.alexcrea.jacn.action.Action;
+import xyz.alexcrea.jacn.action.ActionResult;
+import xyz.alexcrea.jacn.sdk.NeuroSDK;
+import xyz.alexcrea.jacn.sdk.NeuroSDKBuilder;
+import xyz.alexcrea.jacn.sdk.NeuroSDKState;
+import xyz.alexcrea.jacn.sdk.proposed.ProposedFeature;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NeuroTestServerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String GAME_NAME = "Test game";
+
+    private NeuroTestServer server;
+    private NeuroSDK sdk;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new NeuroTestServer();
+        server.startAndWait(TIMEOUT);
+    }
+
+    @AfterEach
+    void stopServer() {
+        if (sdk != null) sdk.close();
+        server.close();
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void sessionLifecycle() throws Exception {
+        Action action = new Action("greet", "Say hello")
+                .setOnResult(request -> new ActionResult(request, true, "hello"));
+
+        sdk = server.configure(new NeuroSDKBuilder(GAME_NAME))
+                .addProposed(ProposedFeature.RE_REGISTER_ALL)
+                .addActionsOnConnect(action)
+                .build();
+
+        // Startup and register
+        GameSession session = server.awaitSession(GAME_NAME, TIMEOUT);
+        assertNotNull(session.awaitRegistered("greet", TIMEOUT));
+        assertEquals(NeuroSDKState.CONNECTED, sdk.getState());
+
+        // Action round trip
+        ActionResultFrame result = session.sendAction("greet", null).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        assertTrue(result.success());
+        assertEquals("hello", result.message());
+        assertTrue(result.latencyNanos() >= 0);
+        assertEquals(0, session.getPendingActionCount());
+
+        // Re-register every action
+        long registers = countRegisters();
+        session.reregisterAll();
+        await(() -> countRegisters() > registers);
+        assertNotNull(session.awaitRegistered("greet", TIMEOUT));
+
+        // Disconnect
+        session.disconnect();
+        await(() -> !session.isOpen());
+        await(() -> sdk.getState() != NeuroSDKState.CONNECTED);
+        assertTrue(server.getSessions().isEmpty());
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void unsentActionIsNotPending() throws Exception {
+        sdk = server.configure(new NeuroSDKBuilder(GAME_NAME)).build();
+        GameSession session = server.awaitSession(GAME_NAME, TIMEOUT);
+
+        session.disconnect();
+        await(() -> !session.isOpen());
+
+        CompletableFuture<ActionResultFrame> future = session.sendAction("greet", null);
+        assertThrows(ExecutionException.class, () -> future.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+        assertEquals(0, session.getPendingActionCount());
+    }
+
+    private long countRegisters() {
+        return server.getFrames().stream()
+                .filter(frame -> frame.direction() == RecordedFrame.Direction.FROM_GAME)
+                .filter(frame -> "actions/register".equals(frame.command()))
+                .count();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("Condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+}
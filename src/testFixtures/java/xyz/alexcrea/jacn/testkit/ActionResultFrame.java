@@ -0,0 +1,32 @@
+package xyz.alexcrea.jacn.testkit;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An action result received by the {@link NeuroTestServer}
+ *
+ * @param id            the action request id
+ * @param success       if the action was successful
+ * @param message       the result message. null if absent
+ * @param sentNanos     the {@link System#nanoTime()} when the action request was sent
+ * @param receivedNanos the {@link System#nanoTime()} when the result was received
+ */
+public record ActionResultFrame(
+        @NotNull String id,
+        boolean success,
+        @Nullable String message,
+        long sentNanos,
+        long receivedNanos
+) {
+
+    /**
+     * Get the time between the action request being sent and its result being received
+     *
+     * @return the round trip latency in nanoseconds
+     */
+    public long latencyNanos() {
+        return receivedNanos - sentNanos;
+    }
+
+}
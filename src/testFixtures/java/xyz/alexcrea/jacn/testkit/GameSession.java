@@ -0,0 +1,308 @@
+package xyz.alexcrea.jacn.testkit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.java_websocket.WebSocket;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A game connected to the {@link NeuroTestServer}.
+ * <p>
+ * Keep track of what the game registered and sent, and allow to script what Neuro send to the game.
+ */
+@SuppressWarnings({"unused"})
+public class GameSession {
+
+    private final static Logger logger = LoggerFactory.getLogger(GameSession.class);
+
+    private final @NotNull NeuroTestServer server;
+    private final @NotNull WebSocket connection;
+
+    private volatile @Nullable String gameName;
+    private volatile boolean open;
+
+    // Guarded by this. waiters are notified on every change
+    private final @NotNull Map<String, JsonNode> registeredActions;
+    private final @NotNull List<Context> contexts;
+    private final @NotNull List<JsonNode> forces;
+
+    private final @NotNull Map<String, PendingAction> pendingActions;
+
+    GameSession(@NotNull NeuroTestServer server, @NotNull WebSocket connection) {
+        this.server = server;
+        this.connection = connection;
+        this.gameName = null;
+        this.open = true;
+
+        this.registeredActions = new LinkedHashMap<>();
+        this.contexts = new CopyOnWriteArrayList<>();
+        this.forces = new CopyOnWriteArrayList<>();
+        this.pendingActions = new ConcurrentHashMap<>();
+    }
+
+    void handle(@NotNull String command, @NotNull JsonNode message) {
+        JsonNode data = message.path("data");
+        switch (command) {
+            case "startup" -> {
+                synchronized (this) {
+                    this.gameName = message.path("game").asText(null);
+                    // Startup clear every registered action
+                    registeredActions.clear();
+                    notifyAll();
+                }
+            }
+            case "actions/register" -> {
+                synchronized (this) {
+                    for (JsonNode action : data.path("actions")) {
+                        // Like Neuro, an already registered action is ignored
+                        registeredActions.putIfAbsent(action.path("name").asText(), action);
+                    }
+                    notifyAll();
+                }
+            }
+            case "actions/unregister" -> {
+                synchronized (this) {
+                    for (JsonNode name : data.path("action_names")) {
+                        registeredActions.remove(name.asText());
+                    }
+                    notifyAll();
+                }
+            }
+            case "actions/force" -> {
+                forces.add(data);
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+            case "context" -> {
+                contexts.add(new Context(data.path("message").asText(), data.path("silent").asBoolean()));
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+            case "action/result" -> handleResult(data);
+            default -> logger.warn("Unknown command received by the test server: {}", command);
+        }
+    }
+
+    private void handleResult(@NotNull JsonNode data) {
+        long receivedNanos = System.nanoTime();
+        String id = data.path("id").asText();
+
+        PendingAction pending = pendingActions.remove(id);
+        if (pending == null) {
+            logger.warn("Received a result for an unknown action request: {}", id);
+            return;
+        }
+
+        JsonNode message = data.get("message");
+        pending.future().complete(new ActionResultFrame(id, data.path("success").asBoolean(),
+                message == null || message.isNull() ? null : message.asText(), pending.sentNanos(), receivedNanos));
+    }
+
+    void closed() {
+        this.open = false;
+        failPendingActions("The game session was closed");
+
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Send an action request to the game, as Neuro would.
+     *
+     * @param name the action name
+     * @param data the action data as a json string. null if none
+     * @return a future completed with the action result when it is received,
+     * or completed exceptionally if the action request could not be sent
+     */
+    @NotNull
+    public CompletableFuture<ActionResultFrame> sendAction(@NotNull String name, @Nullable String data) {
+        String id = UUID.randomUUID().toString();
+
+        ObjectNode actionData = server.createObjectNode();
+        actionData.put("id", id);
+        actionData.put("name", name);
+        if (data != null) actionData.put("data", data);
+
+        CompletableFuture<ActionResultFrame> future = new CompletableFuture<>();
+        // Register before sending: the result may come back before send return
+        PendingAction pending = new PendingAction(future, System.nanoTime());
+        pendingActions.put(id, pending);
+
+        try {
+            server.send(this, "action", actionData);
+        } catch (RuntimeException e) {
+            // No result will come back for a request that was never sent
+            pendingActions.remove(id);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Stop waiting for the result of every pending action request.
+     * Their futures are completed exceptionally, and results received later are ignored.
+     *
+     * @return the number of cancelled action requests
+     */
+    public int cancelPendingActions() {
+        return failPendingActions("The action request was cancelled");
+    }
+
+    private int failPendingActions(@NotNull String reason) {
+        int count = 0;
+        for (String id : List.copyOf(pendingActions.keySet())) {
+            // Removed one by one: a result may be received meanwhile
+            PendingAction pending = pendingActions.remove(id);
+            if (pending == null) continue;
+
+            pending.future().completeExceptionally(new IllegalStateException(reason));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Ask the game to register again every action.
+     */
+    public void reregisterAll() {
+        server.send(this, "actions/reregister_all", null);
+    }
+
+    /**
+     * Ask the game to gracefully shut down when possible.
+     *
+     * @param wantsShutdown true to ask for a shutdown. false to cancel a previous request
+     */
+    public void shutdownGraceful(boolean wantsShutdown) {
+        ObjectNode data = server.createObjectNode();
+        data.put("wants_shutdown", wantsShutdown);
+        server.send(this, "shutdown/graceful", data);
+    }
+
+    /**
+     * Ask the game to shut down immediately.
+     */
+    public void shutdownImmediate() {
+        server.send(this, "shutdown/immediate", null);
+    }
+
+    /**
+     * Close the connection with the game, as if Neuro disconnected.
+     */
+    public void disconnect() {
+        connection.close();
+    }
+
+    /**
+     * Wait until an action is registered.
+     *
+     * @param name    the action name
+     * @param timeout the maximum time to wait
+     * @return the registered action, as it was sent by the game
+     * @throws TimeoutException     if the action was not registered in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @NotNull
+    public synchronized JsonNode awaitRegistered(@NotNull String name, @NotNull Duration timeout)
+            throws TimeoutException, InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!registeredActions.containsKey(name)) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !open) {
+                throw new TimeoutException("Action " + name + " was not registered");
+            }
+            Duration wait = Duration.ofNanos(remaining);
+            wait(Math.max(1, wait.toMillis()));
+        }
+        return registeredActions.get(name);
+    }
+
+    /**
+     * Get the game name sent on startup
+     *
+     * @return the game name. null if the startup command was not received yet
+     */
+    @Nullable
+    public String getGameName() {
+        return gameName;
+    }
+
+    /**
+     * Get if the connection with the game is open
+     *
+     * @return if the connection is open
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Get the actions currently registered by the game
+     *
+     * @return registered action name to the registered action, as it was sent by the game
+     */
+    @NotNull
+    public synchronized Map<String, JsonNode> getRegisteredActions() {
+        return new LinkedHashMap<>(registeredActions);
+    }
+
+    /**
+     * Get every context message sent by the game
+     *
+     * @return the context messages
+     */
+    @NotNull
+    public List<Context> getContexts() {
+        return List.copyOf(contexts);
+    }
+
+    /**
+     * Get every action force sent by the game
+     *
+     * @return the data of the action force commands
+     */
+    @NotNull
+    public List<JsonNode> getForces() {
+        return List.copyOf(forces);
+    }
+
+    /**
+     * Get the number of action requests waiting for a result
+     *
+     * @return the pending action request count
+     */
+    public int getPendingActionCount() {
+        return pendingActions.size();
+    }
+
+    @NotNull
+    WebSocket getConnection() {
+        return connection;
+    }
+
+    /**
+     * A context message sent by the game
+     *
+     * @param message the context message
+     * @param silent  if the message is silent
+     */
+    public record Context(@NotNull String message, boolean silent) {
+    }
+
+    private record PendingAction(@NotNull CompletableFuture<ActionResultFrame> future, long sentNanos) {
+    }
+
+}
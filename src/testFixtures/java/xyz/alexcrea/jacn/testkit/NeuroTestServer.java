@@ -0,0 +1,263 @@
+package xyz.alexcrea.jacn.testkit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.alexcrea.jacn.sdk.NeuroSDKBuilder;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A local stand-in for the Neuro API, to test games and the SDK without Randy or Neuro.
+ * <p>
+ * It accepts the commands a game can send (startup, actions/register, actions/unregister, actions/force, context
+ * and action/result), keep track of each connected game in a {@link GameSession},
+ * and can send action requests, re-register and shutdown commands to the games.
+ * Every frame is recorded with its timestamp (see {@link #getFrames}).
+ * <p>
+ * Example:
+ * <pre>{@code
+ * try (NeuroTestServer server = new NeuroTestServer()) {
+ *     server.startAndWait(Duration.ofSeconds(5));
+ *     NeuroSDK sdk = server.configure(new NeuroSDKBuilder("My game")).build();
+ *
+ *     GameSession session = server.awaitSession("My game", Duration.ofSeconds(5));
+ *     ActionResultFrame result = session.sendAction("my_action", null).get(5, TimeUnit.SECONDS);
+ * }
+ * }</pre>
+ */
+@SuppressWarnings({"unused"})
+public class NeuroTestServer extends WebSocketServer implements AutoCloseable {
+
+    private final static Logger logger = LoggerFactory.getLogger(NeuroTestServer.class);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final @NotNull CountDownLatch started;
+    private final @NotNull Map<WebSocket, GameSession> sessions;
+
+    private final @NotNull List<RecordedFrame> frames;
+    private volatile boolean recording;
+
+    /**
+     * Create a test server on a free local port
+     */
+    public NeuroTestServer() {
+        this(0);
+    }
+
+    /**
+     * Create a test server on a local port
+     *
+     * @param port the port to listen to. 0 for any free port
+     */
+    public NeuroTestServer(int port) {
+        super(new InetSocketAddress("localhost", port));
+        setReuseAddr(true);
+
+        this.started = new CountDownLatch(1);
+        this.sessions = new ConcurrentHashMap<>();
+        this.frames = new ArrayList<>();
+        this.recording = true;
+    }
+
+    /**
+     * Start the server and wait until it accept connections
+     *
+     * @param timeout the maximum time to wait
+     * @throws TimeoutException     if the server did not start in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void startAndWait(@NotNull Duration timeout) throws TimeoutException, InterruptedException {
+        start();
+        if (!started.await(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            throw new TimeoutException("The test server did not start in time");
+        }
+    }
+
+    /**
+     * Set the address and port of an SDK builder to connect to this server.
+     *
+     * @param builder the SDK builder
+     * @return the builder
+     */
+    @NotNull
+    public NeuroSDKBuilder configure(@NotNull NeuroSDKBuilder builder) {
+        return builder.setAddress("localhost")
+                .setPort((short) getPort());
+    }
+
+    @Override
+    public void onStart() {
+        setConnectionLostTimeout(0);
+        started.countDown();
+    }
+
+    @Override
+    public void onOpen(WebSocket connection, ClientHandshake handshake) {
+        sessions.put(connection, new GameSession(this, connection));
+        synchronized (sessions) {
+            sessions.notifyAll();
+        }
+    }
+
+    @Override
+    public void onClose(WebSocket connection, int code, String reason, boolean remote) {
+        GameSession session = sessions.remove(connection);
+        if (session != null) session.closed();
+    }
+
+    @Override
+    public void onMessage(WebSocket connection, String message) {
+        long nanoTime = System.nanoTime();
+        GameSession session = sessions.get(connection);
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(message);
+        } catch (JsonProcessingException e) {
+            record(nanoTime, RecordedFrame.Direction.FROM_GAME, session, null, message);
+            logger.error("Test server received malformed json: {}", message, e);
+            return;
+        }
+
+        String command = node.path("command").asText(null);
+        record(nanoTime, RecordedFrame.Direction.FROM_GAME, session, command, message);
+        if (session == null || command == null) return;
+
+        session.handle(command, node);
+        if ("startup".equals(command)) {
+            synchronized (sessions) {
+                sessions.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public void onError(WebSocket connection, Exception exception) {
+        logger.error("Test server error", exception);
+    }
+
+    void send(@NotNull GameSession session, @NotNull String command, @Nullable ObjectNode data) {
+        ObjectNode frame = createObjectNode();
+        frame.put("command", command);
+        if (data != null) frame.set("data", data);
+
+        String message = frame.toString();
+        record(System.nanoTime(), RecordedFrame.Direction.TO_GAME, session, command, message);
+        session.getConnection().send(message);
+    }
+
+    @NotNull
+    ObjectNode createObjectNode() {
+        return objectMapper.createObjectNode();
+    }
+
+    private void record(long nanoTime, @NotNull RecordedFrame.Direction direction,
+                        @Nullable GameSession session, @Nullable String command, @NotNull String raw) {
+        if (!recording) return;
+
+        RecordedFrame frame = new RecordedFrame(Instant.now(), nanoTime, direction,
+                session == null ? null : session.getGameName(), command, raw);
+        synchronized (frames) {
+            frames.add(frame);
+        }
+    }
+
+    /**
+     * Wait until a game sent its startup command
+     *
+     * @param gameName the game name
+     * @param timeout  the maximum time to wait
+     * @return the session of the game
+     * @throws TimeoutException     if the game did not start in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @NotNull
+    public GameSession awaitSession(@NotNull String gameName, @NotNull Duration timeout)
+            throws TimeoutException, InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (sessions) {
+            while (true) {
+                for (GameSession session : sessions.values()) {
+                    if (gameName.equals(session.getGameName())) return session;
+                }
+
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) throw new TimeoutException("Game " + gameName + " did not start");
+                sessions.wait(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
+            }
+        }
+    }
+
+    /**
+     * Get the currently connected games
+     *
+     * @return the game sessions
+     */
+    @NotNull
+    public List<GameSession> getSessions() {
+        return List.copyOf(sessions.values());
+    }
+
+    /**
+     * Get every recorded frame, in the order they were sent or received
+     *
+     * @return the recorded frames
+     */
+    @NotNull
+    public List<RecordedFrame> getFrames() {
+        synchronized (frames) {
+            return List.copyOf(frames);
+        }
+    }
+
+    /**
+     * Remove every recorded frame
+     */
+    public void clearFrames() {
+        synchronized (frames) {
+            frames.clear();
+        }
+    }
+
+    /**
+     * Set if frames are recorded. Enabled by default.
+     * Can be disabled for load tests so memory do not grow with the number of frames.
+     *
+     * @param recording if frames should be recorded
+     */
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Stop the server and close every connection
+     */
+    @Override
+    public void close() {
+        try {
+            stop(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
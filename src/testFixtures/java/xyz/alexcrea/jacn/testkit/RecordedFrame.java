@@ -0,0 +1,41 @@
+package xyz.alexcrea.jacn.testkit;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+
+/**
+ * A frame sent or received by the {@link NeuroTestServer}
+ *
+ * @param timestamp the time the frame was sent or received
+ * @param nanoTime  the {@link System#nanoTime()} when the frame was sent or received. used to measure latencies
+ * @param direction if the frame was sent by the SDK or by the server
+ * @param gameName  the game name of the session. null if the session did not send the startup command yet
+ * @param command   the command of the frame. null if the frame could not be parsed
+ * @param raw       the frame as it was sent
+ */
+public record RecordedFrame(
+        @NotNull Instant timestamp,
+        long nanoTime,
+        @NotNull Direction direction,
+        @Nullable String gameName,
+        @Nullable String command,
+        @NotNull String raw
+) {
+
+    /**
+     * Direction of a frame
+     */
+    public enum Direction {
+        /**
+         * The frame was sent by the SDK to the server
+         */
+        FROM_GAME,
+        /**
+         * The frame was sent by the server to the SDK
+         */
+        TO_GAME,
+    }
+
+}
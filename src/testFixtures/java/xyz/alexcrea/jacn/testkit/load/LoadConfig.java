@@ -0,0 +1,220 @@
+package xyz.alexcrea.jacn.testkit.load;
+
+import org.jetbrains.annotations.NotNull;
+import xyz.alexcrea.jacn.sdk.ActionExecutionStrategy;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration of a {@link LoadGenerator} run.
+ */
+@SuppressWarnings({"unused"})
+public class LoadConfig {
+
+    private int clients;
+    private int actionsPerClient;
+    private int targetRate;
+    private @NotNull Duration warmup;
+    private @NotNull Duration duration;
+    private @NotNull List<Duration> handlerCosts;
+    private @NotNull ActionExecutionStrategy actionExecution;
+    private @NotNull Duration startupTimeout;
+
+    public LoadConfig() {
+        this.clients = 4;
+        this.actionsPerClient = 10;
+        this.targetRate = 1000;
+        this.warmup = Duration.ofSeconds(2);
+        this.duration = Duration.ofSeconds(10);
+        this.handlerCosts = List.of(Duration.ZERO);
+        this.actionExecution = ActionExecutionStrategy.INLINE;
+        this.startupTimeout = Duration.ofSeconds(10);
+    }
+
+    /**
+     * Get the number of SDK instances
+     *
+     * @return the client count
+     */
+    public int getClients() {
+        return clients;
+    }
+
+    /**
+     * Set the number of SDK instances connected to the test server. Default to 4.
+     *
+     * @param clients the client count
+     * @return this
+     */
+    @NotNull
+    public LoadConfig setClients(int clients) {
+        if (clients <= 0) throw new IllegalArgumentException("Client count should be positive");
+        this.clients = clients;
+        return this;
+    }
+
+    /**
+     * Get the number of actions registered by each client
+     *
+     * @return the action count per client
+     */
+    public int getActionsPerClient() {
+        return actionsPerClient;
+    }
+
+    /**
+     * Set the number of actions registered by each client. Default to 10.
+     *
+     * @param actionsPerClient the action count per client
+     * @return this
+     */
+    @NotNull
+    public LoadConfig setActionsPerClient(int actionsPerClient) {
+        if (actionsPerClient <= 0) throw new IllegalArgumentException("Action count should be positive");
+        this.actionsPerClient = actionsPerClient;
+        return this;
+    }
+
+    /**
+     * Get the total number of action requests sent per second
+     *
+     * @return the target rate
+     */
+    public int getTargetRate() {
+        return targetRate;
+    }
+
+    /**
+     * Set the total number of action requests sent per second, across every client. Default to 1000.
+     * Requests are sent in round-robin on clients and actions.
+     *
+     * @param targetRate the target rate
+     * @return this
+     */
+    @NotNull
+    public LoadConfig setTargetRate(int targetRate) {
+        if (targetRate <= 0) throw new IllegalArgumentException("Target rate should be positive");
+        this.targetRate = targetRate;
+        return this;
+    }
+
+    /**
+     * Get the time requests are sent before being measured
+     *
+     * @return the warmup duration
+     */
+    @NotNull
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    /**
+     * Set the time requests are sent before being measured. Default to 2 seconds.
+     *
+     * @param warmup the warmup duration
+     * @return this
+     */
+    @NotNull
+    public LoadConfig setWarmup(@NotNull Duration warmup) {
+        if (warmup.isNegative()) throw new IllegalArgumentException("Warmup should not be negative");
+        this.warmup = warmup;
+        return this;
+    }
+
+    /**
+     * Get the time requests are measured, for each handler cost
+     *
+     * @return the measurement duration
+     */
+    @NotNull
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Set the time requests are measured, for each handler cost. Default to 10 seconds.
+     *
+     * @param duration the measurement duration
+     * @return this
+     */
+    @NotNull
+    public LoadConfig setDuration(@NotNull Duration duration) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Duration should be positive");
+        }
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * Get the handler costs to run the load with
+     *
+     * @return the handler costs
+     */
+    @NotNull
+    public List<Duration> getHandlerCosts() {
+        return handlerCosts;
+    }
+
+    /**
+     * Set the handler costs to run the load with. Default to zero only.
+     * <p>
+     * The load is run once per handler cost. Every action handler busy spin for the handler cost,
+     * so the reports show how latency degrades as handlers get slower.
+     *
+     * @param handlerCosts the handler costs
+     * @return this
+     */
+    @NotNull
+    public LoadConfig setHandlerCosts(@NotNull List<Duration> handlerCosts) {
+        if (handlerCosts.isEmpty()) throw new IllegalArgumentException("At least one handler cost is needed");
+        this.handlerCosts = List.copyOf(handlerCosts);
+        return this;
+    }
+
+    /**
+     * Get the action execution strategy of the clients
+     *
+     * @return the action execution strategy
+     */
+    @NotNull
+    public ActionExecutionStrategy getActionExecution() {
+        return actionExecution;
+    }
+
+    /**
+     * Set the action execution strategy of the clients. Default to {@link ActionExecutionStrategy#INLINE}.
+     *
+     * @param actionExecution the action execution strategy
+     * @return this
+     */
+    @NotNull
+    public LoadConfig setActionExecution(@NotNull ActionExecutionStrategy actionExecution) {
+        this.actionExecution = actionExecution;
+        return this;
+    }
+
+    /**
+     * Get the maximum time to wait for the clients to connect and register their actions
+     *
+     * @return the startup timeout
+     */
+    @NotNull
+    public Duration getStartupTimeout() {
+        return startupTimeout;
+    }
+
+    /**
+     * Set the maximum time to wait for the clients to connect and register their actions. Default to 10 seconds.
+     *
+     * @param startupTimeout the startup timeout
+     * @return this
+     */
+    @NotNull
+    public LoadConfig setStartupTimeout(@NotNull Duration startupTimeout) {
+        this.startupTimeout = startupTimeout;
+        return this;
+    }
+
+}
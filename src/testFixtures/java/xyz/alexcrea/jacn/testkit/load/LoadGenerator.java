@@ -0,0 +1,366 @@
+package xyz.alexcrea.jacn.testkit.load;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xyz.alexcrea.jacn.action.Action;
+import xyz.alexcrea.jacn.action.ActionRequest;
+import xyz.alexcrea.jacn.action.ActionResult;
+import xyz.alexcrea.jacn.sdk.ActionExecutionStrategy;
+import xyz.alexcrea.jacn.sdk.NeuroSDK;
+import xyz.alexcrea.jacn.sdk.NeuroSDKBuilder;
+import xyz.alexcrea.jacn.sdk.metrics.HistogramSnapshot;
+import xyz.alexcrea.jacn.sdk.metrics.LatencyHistogram;
+import xyz.alexcrea.jacn.testkit.ActionResultFrame;
+import xyz.alexcrea.jacn.testkit.GameSession;
+import xyz.alexcrea.jacn.testkit.NeuroTestServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator connecting several SDK instances to a {@link NeuroTestServer}.
+ * <p>
+ * Every client registers the same actions. Action requests are sent at a fixed rate in round-robin on the clients
+ * and actions, whether previous results were received or not,
+ * and the request to result latency is recorded for each connection.
+ * The load is run once per configured handler cost to show how the latency degrades as handlers get slower.
+ * <p>
+ * Run with {@code ./gradlew loadTest -PloadArgs="clients=8 actions=20 rate=5000 costs=0,100,1000"}.
+ * See {@link #main} for every argument.
+ */
+@SuppressWarnings({"unused"})
+public class LoadGenerator implements AutoCloseable {
+
+    private final static Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(5);
+
+    private final @NotNull LoadConfig config;
+    private final @NotNull NeuroTestServer server;
+    private final @NotNull List<NeuroSDK> clients;
+    private final @NotNull List<GameSession> sessions;
+
+    private volatile long handlerCostNanos;
+
+    /**
+     * Start a test server and connect every client to it
+     *
+     * @param config the load configuration
+     * @throws TimeoutException     if the clients did not connect or register their actions in time
+     * @throws InterruptedException if interrupted while waiting for the clients
+     */
+    public LoadGenerator(@NotNull LoadConfig config) throws TimeoutException, InterruptedException {
+        this.config = config;
+        this.server = new NeuroTestServer();
+        this.clients = new ArrayList<>(config.getClients());
+        this.sessions = new ArrayList<>(config.getClients());
+
+        // Frames are not needed and would grow with the number of requests
+        server.setRecording(false);
+        server.startAndWait(config.getStartupTimeout());
+
+        try {
+            for (int i = 0; i < config.getClients(); i++) {
+                clients.add(server.configure(new NeuroSDKBuilder(gameName(i)))
+                        .setActionExecution(config.getActionExecution())
+                        .addActionsOnConnect(createActions())
+                        .build());
+            }
+
+            for (int i = 0; i < config.getClients(); i++) {
+                GameSession session = server.awaitSession(gameName(i), config.getStartupTimeout());
+                for (int j = 0; j < config.getActionsPerClient(); j++) {
+                    session.awaitRegistered(actionName(j), config.getStartupTimeout());
+                }
+                sessions.add(session);
+            }
+        } catch (TimeoutException | InterruptedException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @NotNull
+    private List<Action> createActions() {
+        List<Action> actions = new ArrayList<>(config.getActionsPerClient());
+        for (int i = 0; i < config.getActionsPerClient(); i++) {
+            actions.add(new Action(actionName(i), "Load test action number " + i)
+                    .setOnResult(this::handle));
+        }
+        return actions;
+    }
+
+    @NotNull
+    private ActionResult handle(@NotNull ActionRequest request) {
+        long cost = handlerCostNanos;
+        if (cost > 0) {
+            // Busy spin to simulate game work holding the handler thread
+            long start = System.nanoTime();
+            while (System.nanoTime() - start < cost) {
+                Thread.onSpinWait();
+            }
+        }
+        return new ActionResult(request, true);
+    }
+
+    /**
+     * Run the load once for every configured handler cost
+     *
+     * @return a report per handler cost, in the configured order
+     * @throws InterruptedException if interrupted while running
+     */
+    @NotNull
+    public List<LoadReport> run() throws InterruptedException {
+        List<LoadReport> reports = new ArrayList<>(config.getHandlerCosts().size());
+        for (Duration handlerCost : config.getHandlerCosts()) {
+            reports.add(run(handlerCost));
+        }
+        return reports;
+    }
+
+    /**
+     * Run the load for a handler cost
+     *
+     * @param handlerCost the time every action handler spends per request
+     * @return the load report
+     * @throws InterruptedException if interrupted while running
+     */
+    @NotNull
+    public LoadReport run(@NotNull Duration handlerCost) throws InterruptedException {
+        this.handlerCostNanos = handlerCost.toNanos();
+
+        int clientCount = sessions.size();
+        int actionCount = config.getActionsPerClient();
+
+        List<ConnectionStats> stats = new ArrayList<>(clientCount);
+        for (int i = 0; i < clientCount; i++) {
+            stats.add(new ConnectionStats());
+        }
+        AtomicLong inFlight = new AtomicLong();
+        AtomicLong lastReceived = new AtomicLong(Long.MIN_VALUE);
+        LongAdder unanswered = new LongAdder();
+        long sent = 0;
+
+        long interval = Math.max(1, 1_000_000_000L / config.getTargetRate());
+        long start = System.nanoTime();
+        long measureStart = start + config.getWarmup().toNanos();
+        long end = measureStart + config.getDuration().toNanos();
+
+        long lost;
+        long measureEnd;
+        try {
+            long next = start;
+            long request = 0;
+            while (next < end) {
+                long now = System.nanoTime();
+                if (now < next) {
+                    LockSupport.parkNanos(next - now);
+                    if (Thread.interrupted()) throw new InterruptedException();
+                    continue;
+                }
+
+                int client = (int) (request % clientCount);
+                int action = (int) ((request / clientCount) % actionCount);
+                request++;
+
+                long intended = next;
+                next += interval;
+
+                if (intended < measureStart) {
+                    send(sessions.get(client), actionName(action));
+                    continue;
+                }
+
+                ConnectionStats connection = stats.get(client);
+                inFlight.incrementAndGet();
+                sent++;
+                CompletableFuture<ActionResultFrame> future = send(sessions.get(client), actionName(action));
+                if (future == null) {
+                    inFlight.decrementAndGet();
+                    unanswered.increment();
+                    continue;
+                }
+
+                future.whenComplete((result, exception) -> {
+                    if (result != null) {
+                        // Measure from the scheduled send time: a late send is part of the latency
+                        connection.latency.record(result.receivedNanos() - intended);
+                        connection.completed.increment();
+                        if (!result.success()) connection.failed.increment();
+                        lastReceived.accumulateAndGet(result.receivedNanos(), Math::max);
+                    } else {
+                        unanswered.increment();
+                    }
+                    inFlight.decrementAndGet();
+                });
+            }
+            long sendEnd = System.nanoTime();
+
+            long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+            while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+                Thread.sleep(1);
+            }
+
+            // Results received while draining are counted, so the window extends to the last of them
+            lost = inFlight.get() + unanswered.sum();
+            measureEnd = Math.max(sendEnd, lastReceived.get());
+        } finally {
+            // Results still missing would otherwise stay pending and be counted by the next run
+            for (GameSession session : sessions) {
+                session.cancelPendingActions();
+            }
+        }
+
+        Duration window = Duration.ofNanos(Math.max(1, measureEnd - measureStart));
+        HistogramSnapshot total = HistogramSnapshot.empty();
+        List<LoadReport.ConnectionReport> connections = new ArrayList<>(clientCount);
+        for (int i = 0; i < clientCount; i++) {
+            ConnectionStats connection = stats.get(i);
+            HistogramSnapshot latency = connection.latency.snapshot();
+            total = total.merge(latency);
+            connections.add(new LoadReport.ConnectionReport(gameName(i),
+                    connection.completed.sum(), connection.failed.sum(), latency, window));
+        }
+
+        return new LoadReport(handlerCost, window, sent, lost, total, connections);
+    }
+
+    /**
+     * Send an action request
+     *
+     * @param session the session to send the request to
+     * @param action  the action name
+     * @return the future of the action result. null if the request could not be sent
+     */
+    @Nullable
+    private static CompletableFuture<ActionResultFrame> send(@NotNull GameSession session, @NotNull String action) {
+        try {
+            return session.sendAction(action, null);
+        } catch (RuntimeException e) {
+            logger.warn("Could not send a load test action request", e);
+            return null;
+        }
+    }
+
+    /**
+     * Close every client and stop the test server
+     */
+    @Override
+    public void close() {
+        for (NeuroSDK client : clients) {
+            client.close();
+        }
+        server.close();
+    }
+
+    @NotNull
+    private static String gameName(int client) {
+        return "Load client " + client;
+    }
+
+    @NotNull
+    private static String actionName(int action) {
+        return "load_action_" + action;
+    }
+
+    private static class ConnectionStats {
+
+        private final @NotNull LatencyHistogram latency = new LatencyHistogram();
+        private final @NotNull LongAdder completed = new LongAdder();
+        private final @NotNull LongAdder failed = new LongAdder();
+
+    }
+
+    /**
+     * Run the load generator and print the reports.
+     * <p>
+     * Arguments are {@code key=value} pairs:
+     * <ul>
+     *     <li>{@code clients}: number of SDK instances</li>
+     *     <li>{@code actions}: number of actions per client</li>
+     *     <li>{@code rate}: total action requests per second</li>
+     *     <li>{@code warmup}: warmup in seconds</li>
+     *     <li>{@code duration}: measurement duration in seconds</li>
+     *     <li>{@code costs}: comma separated handler costs in microseconds</li>
+     *     <li>{@code execution}: {@code inline}, {@code virtual} or a fixed pool thread count</li>
+     *     <li>{@code connections}: {@code true} to also print the report of every connection</li>
+     * </ul>
+     *
+     * @param args the arguments
+     * @throws Exception if the load could not be run
+     */
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = new LoadConfig();
+        boolean printConnections = false;
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator == -1) throw new IllegalArgumentException("Expected key=value argument: " + arg);
+            String key = arg.substring(0, separator);
+            String value = arg.substring(separator + 1);
+
+            switch (key) {
+                case "clients" -> config.setClients(Integer.parseInt(value));
+                case "actions" -> config.setActionsPerClient(Integer.parseInt(value));
+                case "rate" -> config.setTargetRate(Integer.parseInt(value));
+                case "warmup" -> config.setWarmup(Duration.ofSeconds(Long.parseLong(value)));
+                case "duration" -> config.setDuration(Duration.ofSeconds(Long.parseLong(value)));
+                case "costs" -> {
+                    List<Duration> costs = new ArrayList<>();
+                    for (String cost : value.split(",")) {
+                        costs.add(Duration.ofNanos(Long.parseLong(cost.trim()) * 1000));
+                    }
+                    config.setHandlerCosts(costs);
+                }
+                case "execution" -> config.setActionExecution(switch (value) {
+                    case "inline" -> ActionExecutionStrategy.INLINE;
+                    case "virtual" -> ActionExecutionStrategy.virtualThreadPerRequest();
+                    default -> ActionExecutionStrategy.fixedPool(Integer.parseInt(value));
+                });
+                case "connections" -> printConnections = Boolean.parseBoolean(value);
+                default -> throw new IllegalArgumentException("Unknown argument: " + key);
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "%d clients, %d actions per client, %d requests/s%n",
+                config.getClients(), config.getActionsPerClient(), config.getTargetRate());
+        System.out.printf(Locale.ROOT, "%12s %10s %10s %10s %10s %10s %12s %8s%n",
+                "cost (us)", "p50 (us)", "p99 (us)", "p99.9 (us)", "max (us)", "mean (us)", "results/s", "lost");
+
+        try (LoadGenerator generator = new LoadGenerator(config)) {
+            for (Duration handlerCost : config.getHandlerCosts()) {
+                LoadReport report = generator.run(handlerCost);
+                printLine(String.valueOf(handlerCost.toNanos() / 1000), report.latency(),
+                        report.throughput(), report.lost());
+
+                if (!printConnections) continue;
+                for (LoadReport.ConnectionReport connection : report.connections()) {
+                    printLine("  " + connection.gameName(), connection.latency(), connection.throughput(), 0);
+                }
+            }
+        }
+    }
+
+    private static void printLine(@NotNull String label, @NotNull HistogramSnapshot latency,
+                                  double throughput, long lost) {
+        System.out.printf(Locale.ROOT, "%12s %10.1f %10.1f %10.1f %10.1f %10.1f %12.1f %8d%n",
+                label,
+                latency.getValueAtPercentile(50) / 1e3,
+                latency.getValueAtPercentile(99) / 1e3,
+                latency.getValueAtPercentile(99.9) / 1e3,
+                latency.getMax() / 1e3,
+                latency.getMean() / 1e3,
+                throughput,
+                lost);
+    }
+
+}
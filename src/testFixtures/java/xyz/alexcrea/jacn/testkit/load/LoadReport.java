@@ -0,0 +1,79 @@
+package xyz.alexcrea.jacn.testkit.load;
+
+import org.jetbrains.annotations.NotNull;
+import xyz.alexcrea.jacn.sdk.metrics.HistogramSnapshot;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Result of a {@link LoadGenerator} run for one handler cost.
+ * <p>
+ * Latencies are measured from the time a request was scheduled to be sent to the time its result was received,
+ * so a late send caused by a saturated client is counted in the latency.
+ * Throughputs are computed over the measurement window, that include results received after the last request
+ * was sent.
+ *
+ * @param handlerCost the time every action handler spent per request
+ * @param duration    the measurement window, from the first measured request to the last result received
+ * @param sent        the number of measured requests sent
+ * @param lost        the number of measured requests without a result when the run ended,
+ *                    including requests that could not be sent
+ * @param latency     the latency of every measured request, across every connection
+ * @param connections the report of each connection
+ */
+public record LoadReport(
+        @NotNull Duration handlerCost,
+        @NotNull Duration duration,
+        long sent,
+        long lost,
+        @NotNull HistogramSnapshot latency,
+        @NotNull List<ConnectionReport> connections
+) {
+
+    /**
+     * Get the number of results received per second, across every connection
+     *
+     * @return the total throughput
+     */
+    public double throughput() {
+        long completed = 0;
+        for (ConnectionReport connection : connections) {
+            completed += connection.completed();
+        }
+        return completed / seconds(duration);
+    }
+
+    /**
+     * Report of a single connection
+     *
+     * @param gameName  the game name of the client
+     * @param completed the number of measured results received
+     * @param failed    the number of measured results that were not successful
+     * @param latency   the latency of the measured requests of this connection
+     * @param duration  the measurement window, shared by every connection of a run
+     */
+    public record ConnectionReport(
+            @NotNull String gameName,
+            long completed,
+            long failed,
+            @NotNull HistogramSnapshot latency,
+            @NotNull Duration duration
+    ) {
+
+        /**
+         * Get the number of results received per second by this connection
+         *
+         * @return the connection throughput
+         */
+        public double throughput() {
+            return completed / seconds(duration);
+        }
+
+    }
+
+    private static double seconds(@NotNull Duration duration) {
+        return duration.toNanos() / 1e9;
+    }
+
+}